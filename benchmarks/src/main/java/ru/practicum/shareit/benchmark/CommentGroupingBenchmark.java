@@ -0,0 +1,66 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.CommentResponse;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.service.CommentServiceImpl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Grouping of comments by item in {@link CommentServiceImpl#getItemIdToComments(Set)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommentGroupingBenchmark {
+
+    @Param({"100"})
+    private int itemCount;
+
+    @Param({"100", "10000"})
+    private int commentCount;
+
+    private CommentServiceImpl commentService;
+    private Set<Long> itemIds;
+
+    @Setup
+    public void setUp() {
+        List<Item> items = Fixtures.items(itemCount, Fixtures.user(1));
+        List<Comment> comments = Fixtures.comments(commentCount, items, Fixtures.user(2));
+        itemIds = items.stream().map(Item::getId).collect(Collectors.toSet());
+        CommentRepository commentRepository = Stubs.stub(CommentRepository.class, method -> {
+            if (method.getName().equals("findAllByItem_IdIn")) {
+                return comments;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+        commentService = Stubs.construct(CommentServiceImpl.class, commentRepository,
+                Stubs.construct(CommentMapper.class));
+    }
+
+    @Benchmark
+    public Map<Long, List<CommentResponse>> getItemIdToComments() {
+        return commentService.getItemIdToComments(itemIds);
+    }
+}
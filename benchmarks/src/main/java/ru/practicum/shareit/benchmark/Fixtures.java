@@ -0,0 +1,103 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingShortView;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic domain objects shared by the benchmarks.
+ */
+final class Fixtures {
+
+    static final LocalDateTime NOW = LocalDateTime.of(2023, 3, 1, 12, 0);
+
+    private Fixtures() {
+    }
+
+    static User user(long id) {
+        return new User(id, "User " + id, "user" + id + "@mail.ru");
+    }
+
+    static Item item(long id, User owner) {
+        return Item.builder()
+                .id(id)
+                .owner(owner)
+                .name("Дрель " + id)
+                .description("Аккумуляторная дрель с набором бит, модель " + id)
+                .available(true)
+                .bookings(new ArrayList<>())
+                .build();
+    }
+
+    static List<Item> items(int count, User owner) {
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            items.add(item(i, owner));
+        }
+        return items;
+    }
+
+    static Booking booking(long id, Item item, User booker) {
+        return Booking.builder()
+                .id(id)
+                .start(NOW.plusHours(id))
+                .end(NOW.plusHours(id + 1))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build();
+    }
+
+    static List<Booking> bookings(int count, Item item, User booker) {
+        List<Booking> bookings = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            bookings.add(booking(i, item, booker));
+        }
+        return bookings;
+    }
+
+    static List<Comment> comments(int count, List<Item> items, User author) {
+        List<Comment> comments = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            comments.add(Comment.builder()
+                    .id((long) i)
+                    .text("Отличная вещь, спасибо! #" + i)
+                    .item(items.get(i % items.size()))
+                    .author(author)
+                    .created(NOW.minusDays(i))
+                    .build());
+        }
+        return comments;
+    }
+
+    static BookingShortView shortView(long id, long bookerId, long itemId, LocalDateTime start) {
+        return new BookingShortView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getBookerId() {
+                return bookerId;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+        };
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.model.BookingShortView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.CommentServiceImpl;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Assembly of the owner's item page: attaching last/next bookings and comments to items
+ * already loaded from the database. Repositories return canned rows, so only the
+ * in-memory part of {@link ItemServiceImpl#getItemsForUser(long, int, int)} is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemsForUserBenchmark {
+
+    private static final long OWNER_ID = 1L;
+
+    @Param({"10", "100", "1000"})
+    private int itemCount;
+
+    /**
+     * Booking rows returned per item. More than one row means several bookings
+     * share the same start and have to be resolved in memory.
+     */
+    @Param({"1", "20"})
+    private int bookingsPerItem;
+
+    @Param({"5"})
+    private int commentsPerItem;
+
+    private ItemServiceImpl itemService;
+
+    @Setup
+    public void setUp() {
+        User owner = Fixtures.user(OWNER_ID);
+        List<Item> items = Fixtures.items(itemCount, owner);
+        List<Long> ids = items.stream().map(Item::getId).collect(Collectors.toList());
+        List<BookingShortView> last = shortViews(ids, -1);
+        List<BookingShortView> next = shortViews(ids, 1);
+        List<Comment> comments = Fixtures.comments(itemCount * commentsPerItem, items, Fixtures.user(2));
+
+        ItemRepository itemRepository = Stubs.stub(ItemRepository.class, method -> {
+            switch (method.getName()) {
+                case "findIdsByOwnerId":
+                    return ids;
+                case "findAllByIdInFetchOwner":
+                    return items;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        BookingRepository bookingRepository = Stubs.stub(BookingRepository.class, method -> {
+            switch (method.getName()) {
+                case "findLastBookingsOfItems":
+                    return last;
+                case "findNextBookingsOfItems":
+                    return next;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        CommentRepository commentRepository = Stubs.stub(CommentRepository.class, method -> {
+            if (method.getName().equals("findAllByItem_IdIn")) {
+                return comments;
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+
+        CommentServiceImpl commentService = Stubs.construct(CommentServiceImpl.class,
+                commentRepository, Stubs.construct(CommentMapper.class));
+        itemService = Stubs.construct(ItemServiceImpl.class, itemRepository, bookingRepository, commentService,
+                Stubs.construct(ItemMapper.class));
+    }
+
+    @Benchmark
+    public List<ItemDto> getItemsForUser() {
+        return itemService.getItemsForUser(OWNER_ID, 0, itemCount);
+    }
+
+    private List<BookingShortView> shortViews(List<Long> itemIds, int hoursFromNow) {
+        List<BookingShortView> views = new ArrayList<>(itemIds.size() * bookingsPerItem);
+        long id = hoursFromNow > 0 ? 1_000_000L : 0L;
+        for (Long itemId : itemIds) {
+            for (int i = 0; i < bookingsPerItem; i++) {
+                views.add(Fixtures.shortView(++id, 2L, itemId, Fixtures.NOW.plusHours(hoursFromNow)));
+            }
+        }
+        return views;
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.item.dto.BookingResponseDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Serialization of the largest response bodies with an ObjectMapper configured
+ * the same way Spring Boot configures the one used by the controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"1", "100"})
+    private int pageSize;
+
+    private ObjectWriter writer;
+    private List<BookingResponse> bookings;
+    private List<ItemDto> items;
+
+    @Setup
+    public void setUp() {
+        writer = Jackson2ObjectMapperBuilder.json().build().writer();
+        User owner = Fixtures.user(1);
+        User booker = Fixtures.user(2);
+        List<Item> domainItems = Fixtures.items(pageSize, owner);
+        BookingMapper bookingMapper = Stubs.construct(BookingMapper.class);
+        bookings = Fixtures.bookings(pageSize, domainItems.get(0), booker).stream()
+                .map(bookingMapper::mapToDto)
+                .collect(Collectors.toList());
+        CommentMapper commentMapper = Stubs.construct(CommentMapper.class);
+        items = new ArrayList<>(pageSize);
+        for (Item item : domainItems) {
+            items.add(ItemDto.builder()
+                    .id(item.getId())
+                    .ownerId(owner.getId())
+                    .name(item.getName())
+                    .description(item.getDescription())
+                    .available(item.getAvailable())
+                    .lastBooking(BookingResponseDto.builder().id(item.getId()).bookerId(booker.getId()).build())
+                    .nextBooking(BookingResponseDto.builder().id(item.getId() + 1).bookerId(booker.getId()).build())
+                    .comments(Fixtures.comments(3, List.of(item), booker).stream()
+                            .map(commentMapper::mapToDto)
+                            .collect(Collectors.toList()))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] bookingResponses() throws JsonProcessingException {
+        return writer.writeValueAsBytes(bookings);
+    }
+
+    @Benchmark
+    public byte[] itemDtos() throws JsonProcessingException {
+        return writer.writeValueAsBytes(items);
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.benchmark;
+
+import javax.annotation.PostConstruct;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Dependency-free stand-ins for Spring Data repositories, so that benchmarks
+ * measure the service code and not a database or a mocking framework.
+ */
+final class Stubs {
+
+    private Stubs() {
+    }
+
+    /**
+     * Creates an implementation of the interface that answers every call with the given function.
+     */
+    static <T> T stub(Class<T> type, Function<Method, Object> answer) {
+        Object proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return handleObjectMethod(p, method, args);
+            }
+            return answer.apply(method);
+        });
+        return type.cast(proxy);
+    }
+
+    /**
+     * Creates a bean through its only constructor, the way the container would. Every parameter gets the
+     * collaborator assignable to it, the others get a stub that fails on any call, so a benchmark passes
+     * just what its path uses and learns when the path starts using more.
+     */
+    static <T> T construct(Class<T> type, Object... collaborators) {
+        Constructor<?>[] constructors = type.getConstructors();
+        if (constructors.length != 1) {
+            throw new IllegalArgumentException(type.getSimpleName() + " has " + constructors.length
+                    + " public constructors, expected one");
+        }
+        Class<?>[] parameterTypes = constructors[0].getParameterTypes();
+        Object[] args = new Object[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> parameterType = parameterTypes[i];
+            args[i] = Arrays.stream(collaborators)
+                    .filter(parameterType::isInstance)
+                    .findFirst()
+                    .orElseGet(() -> unused(type, parameterType));
+        }
+        try {
+            return type.cast(constructors[0].newInstance(args));
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot create " + type.getSimpleName(), e);
+        }
+    }
+
+    private static Object unused(Class<?> bean, Class<?> type) {
+        if (!type.isInterface()) {
+            throw new IllegalArgumentException(bean.getSimpleName() + " needs a " + type.getSimpleName());
+        }
+        return stub(type, method -> {
+            throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName()
+                    + " is not stubbed for " + bean.getSimpleName());
+        });
+    }
+
+    /**
+     * Invokes {@link PostConstruct} methods the way the container would.
+     */
+    static <T> T postConstruct(T bean) {
+        for (Method method : bean.getClass().getDeclaredMethods()) {
+            if (method.isAnnotationPresent(PostConstruct.class)) {
+                method.setAccessible(true);
+                try {
+                    method.invoke(bean);
+                } catch (IllegalAccessException | InvocationTargetException e) {
+                    throw new IllegalStateException("Cannot initialize " + bean.getClass().getSimpleName(), e);
+                }
+            }
+        }
+        return bean;
+    }
+
+    private static Object handleObjectMethod(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                return "Stub@" + Integer.toHexString(System.identityHashCode(proxy));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingStateDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.UserBookingsProcessorImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of dispatching a booking listing to the repository query matching the state.
+ * The repository answers instantly, so the numbers show the cost of the dispatch itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserBookingsProcessorBenchmark {
+
+    private static final long USER_ID = 1L;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    private BookingStateDto state;
+
+    @Param({"true", "false"})
+    private boolean isOwner;
+
+    private UserBookingsProcessorImpl processor;
+    private BookingCursor cursor;
+
+    @Setup
+    public void setUp() {
+        User owner = Fixtures.user(USER_ID);
+        Item item = Fixtures.item(1, owner);
+        List<Booking> page = Fixtures.bookings(PAGE_SIZE, item, Fixtures.user(2));
+        cursor = BookingCursor.of(page.get(page.size() - 1));
+        BookingRepository bookingRepository = Stubs.stub(BookingRepository.class, method -> page);
+        processor = Stubs.postConstruct(new UserBookingsProcessorImpl(bookingRepository));
+    }
+
+    @Benchmark
+    public List<Booking> offsetPage() {
+        return processor.getAllBookingsOfUser(isOwner, USER_ID, state, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Booking> cursorPage() {
+        return processor.getAllBookingsOfUserAfterCursor(isOwner, USER_ID, state, cursor, PAGE_SIZE);
+    }
+}
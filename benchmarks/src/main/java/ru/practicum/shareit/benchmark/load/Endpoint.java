@@ -0,0 +1,65 @@
+package ru.practicum.shareit.benchmark.load;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Gateway endpoints replayed by the {@link LoadDriver}, each with a default weight in the mix.
+ */
+enum Endpoint {
+    ITEM(30, (ctx, base) -> get(base + "/items/" + ctx.popularItemId(), ctx.anyUserId())),
+    OWNER_ITEMS(15, (ctx, base) -> get(base + "/items?from=0&size=20", ctx.ownerId())),
+    SEARCH(15, (ctx, base) -> get(base + "/items/search?from=0&size=20&text="
+            + URLEncoder.encode(ctx.searchText(), StandardCharsets.UTF_8), ctx.anyUserId())),
+    BOOKINGS(10, (ctx, base) -> get(base + "/bookings?state=" + ctx.bookingState() + "&size=20",
+            ctx.bookerId())),
+    OWNER_BOOKINGS(10, (ctx, base) -> get(base + "/bookings/owner?state=" + ctx.bookingState() + "&size=20",
+            ctx.ownerId())),
+    REQUESTS(5, (ctx, base) -> get(base + "/requests/all?from=0&size=20", ctx.anyUserId())),
+    USER(5, (ctx, base) -> get(base + "/users/" + ctx.anyUserId(), null)),
+    BOOK(10, (ctx, base) -> {
+        LocalDateTime start = LocalDateTime.now().plusHours(1 + ctx.random().nextInt(24 * 90))
+                .truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = start.plusHours(1 + ctx.random().nextInt(72));
+        String body = String.format("{\"itemId\":%d,\"start\":\"%s\",\"end\":\"%s\"}", ctx.popularItemId(),
+                DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(start), DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(end));
+        return HttpRequest.newBuilder(URI.create(base + "/bookings"))
+                .timeout(LoadContext.REQUEST_TIMEOUT)
+                .header(LoadContext.USER_HEADER, String.valueOf(ctx.bookerId()))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    });
+
+    private final int defaultWeight;
+    private final BiFunction<LoadContext, String, HttpRequest> requestFactory;
+
+    Endpoint(int defaultWeight, BiFunction<LoadContext, String, HttpRequest> requestFactory) {
+        this.defaultWeight = defaultWeight;
+        this.requestFactory = requestFactory;
+    }
+
+    int defaultWeight() {
+        return defaultWeight;
+    }
+
+    HttpRequest request(LoadContext ctx, String baseUrl) {
+        return requestFactory.apply(ctx, baseUrl);
+    }
+
+    private static HttpRequest get(String url, Long userId) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .timeout(LoadContext.REQUEST_TIMEOUT)
+                .GET();
+        if (userId != null) {
+            builder.header(LoadContext.USER_HEADER, String.valueOf(userId));
+        }
+        return builder.build();
+    }
+}
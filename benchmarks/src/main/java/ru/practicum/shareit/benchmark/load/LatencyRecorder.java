@@ -0,0 +1,55 @@
+package ru.practicum.shareit.benchmark.load;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of one endpoint recorded by one worker. Not thread-safe: every worker
+ * owns its recorders and they are merged once the run is over.
+ */
+class LatencyRecorder {
+    private long[] latenciesNanos = new long[1024];
+    private int count;
+    private int failures;
+
+    void record(long latencyNanos, boolean success) {
+        if (count == latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, count * 2);
+        }
+        latenciesNanos[count++] = latencyNanos;
+        if (!success) {
+            failures++;
+        }
+    }
+
+    void merge(LatencyRecorder other) {
+        if (count + other.count > latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, count + other.count);
+        }
+        System.arraycopy(other.latenciesNanos, 0, latenciesNanos, count, other.count);
+        count += other.count;
+        failures += other.failures;
+    }
+
+    int count() {
+        return count;
+    }
+
+    int failures() {
+        return failures;
+    }
+
+    /**
+     * Sorts the recorded latencies, must be called before {@link #percentileNanos(double)}.
+     */
+    void sort() {
+        Arrays.sort(latenciesNanos, 0, count);
+    }
+
+    long percentileNanos(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * count) - 1;
+        return latenciesNanos[Math.max(0, Math.min(index, count - 1))];
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.benchmark.load;
+
+import ru.practicum.shareit.datagen.ZipfDistribution;
+
+import java.time.Duration;
+import java.util.Random;
+
+/**
+ * Picks ids and parameters of a request. The skew mirrors the one of the data generator,
+ * so that owners holding most of the items and the most popular items get most of the traffic.
+ * Ids are assumed to start at 1, which holds for a freshly generated data set.
+ */
+class LoadContext {
+    static final String USER_HEADER = "X-Sharer-User-Id";
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final String[] SEARCH_TEXTS = {"дрель", "пила", "палатк", "походная", "лестница", "кофе"};
+    private static final String[] BOOKING_STATES = {"ALL", "ALL", "ALL", "CURRENT", "PAST", "FUTURE", "WAITING"};
+
+    private final Random random;
+    private final int users;
+    private final ZipfDistribution owners;
+    private final ZipfDistribution bookers;
+    private final ZipfDistribution popularItems;
+
+    LoadContext(Random random, LoadOptions options, ZipfDistribution owners,
+                ZipfDistribution bookers, ZipfDistribution popularItems) {
+        this.random = random;
+        this.users = options.getUsers();
+        this.owners = owners;
+        this.bookers = bookers;
+        this.popularItems = popularItems;
+    }
+
+    Random random() {
+        return random;
+    }
+
+    long anyUserId() {
+        return 1 + random.nextInt(users);
+    }
+
+    long ownerId() {
+        return 1 + owners.sample(random);
+    }
+
+    long bookerId() {
+        return 1 + (bookers.sample(random) + users / 2) % users;
+    }
+
+    long popularItemId() {
+        return 1 + popularItems.sample(random);
+    }
+
+    String searchText() {
+        return SEARCH_TEXTS[random.nextInt(SEARCH_TEXTS.length)];
+    }
+
+    String bookingState() {
+        return BOOKING_STATES[random.nextInt(BOOKING_STATES.length)];
+    }
+}
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.benchmark.load;
+
+import ru.practicum.shareit.datagen.ZipfDistribution;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop load driver: every thread sends requests of the configured mix to the gateway
+ * one after another. Requests sent during the warmup are not measured. Prints request count,
+ * non-2xx responses, throughput and latency percentiles per endpoint.
+ * <p>
+ * Expects the data set of the {@code datagen} profile, for example:
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar ru.practicum.shareit.benchmark.load.LoadDriver \
+ *     --gateway=http://localhost:8080 --threads=32 --duration=2m --mix=item=60,search=40
+ * </pre>
+ */
+public final class LoadDriver {
+    private LoadDriver() {
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        LoadOptions options = LoadOptions.parse(args);
+        Map<Endpoint, LatencyRecorder> results = run(options);
+        printReport(results, options.getDuration());
+    }
+
+    static Map<Endpoint, LatencyRecorder> run(LoadOptions options) throws InterruptedException, ExecutionException {
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        ZipfDistribution owners = new ZipfDistribution(options.getUsers(), options.getOwnerSkew());
+        ZipfDistribution bookers = new ZipfDistribution(options.getUsers(), options.getBookerSkew());
+        ZipfDistribution popularItems = new ZipfDistribution(options.getItems(), options.getItemPopularitySkew());
+        Mix mix = new Mix(options.getMix());
+
+        long measureFrom = System.nanoTime() + options.getWarmup().toNanos();
+        long measureUntil = measureFrom + options.getDuration().toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(options.getThreads());
+        List<Future<Map<Endpoint, LatencyRecorder>>> futures = new ArrayList<>();
+        for (int i = 0; i < options.getThreads(); i++) {
+            Random random = new Random(options.getSeed() + i);
+            LoadContext ctx = new LoadContext(random, options, owners, bookers, popularItems);
+            futures.add(workers.submit(() -> drive(client, options.getGateway(), mix, ctx, measureFrom, measureUntil)));
+        }
+        workers.shutdown();
+
+        Map<Endpoint, LatencyRecorder> merged = new EnumMap<>(Endpoint.class);
+        for (Future<Map<Endpoint, LatencyRecorder>> future : futures) {
+            future.get().forEach((endpoint, recorder) ->
+                    merged.computeIfAbsent(endpoint, e -> new LatencyRecorder()).merge(recorder));
+        }
+        return merged;
+    }
+
+    private static Map<Endpoint, LatencyRecorder> drive(HttpClient client,
+                                                        String gateway,
+                                                        Mix mix,
+                                                        LoadContext ctx,
+                                                        long measureFrom,
+                                                        long measureUntil) throws InterruptedException {
+        Map<Endpoint, LatencyRecorder> recorders = new EnumMap<>(Endpoint.class);
+        long started;
+        while ((started = System.nanoTime()) < measureUntil) {
+            Endpoint endpoint = mix.pick(ctx.random());
+            boolean success;
+            try {
+                HttpResponse<Void> response = client.send(endpoint.request(ctx, gateway),
+                        HttpResponse.BodyHandlers.discarding());
+                success = response.statusCode() < 300;
+            } catch (IOException e) {
+                success = false;
+            }
+            if (started >= measureFrom) {
+                recorders.computeIfAbsent(endpoint, e -> new LatencyRecorder())
+                        .record(System.nanoTime() - started, success);
+            }
+        }
+        return recorders;
+    }
+
+    static void printReport(Map<Endpoint, LatencyRecorder> results, Duration duration) {
+        String format = "%-16s %10s %10s %12s %9s %9s %9s %9s%n";
+        System.out.printf(format, "endpoint", "requests", "non-2xx", "throughput/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        LatencyRecorder total = new LatencyRecorder();
+        results.forEach((endpoint, recorder) -> {
+            printRow(format, endpoint.name(), recorder, duration);
+            total.merge(recorder);
+        });
+        printRow(format, "TOTAL", total, duration);
+    }
+
+    private static void printRow(String format, String name, LatencyRecorder recorder, Duration duration) {
+        recorder.sort();
+        System.out.printf(format, name, recorder.count(), recorder.failures(),
+                String.format("%.1f", recorder.count() / (duration.toMillis() / 1000.0)),
+                millis(recorder.percentileNanos(50)), millis(recorder.percentileNanos(90)),
+                millis(recorder.percentileNanos(99)), millis(recorder.percentileNanos(100)));
+    }
+
+    static String millis(long nanos) {
+        return String.format("%.2f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /**
+     * Picks endpoints with probabilities proportional to their weights.
+     */
+    private static class Mix {
+        private final Endpoint[] endpoints;
+        private final int[] cumulativeWeights;
+
+        Mix(Map<Endpoint, Integer> weights) {
+            List<Endpoint> selected = new ArrayList<>();
+            List<Integer> cumulative = new ArrayList<>();
+            int sum = 0;
+            for (Map.Entry<Endpoint, Integer> entry : weights.entrySet()) {
+                if (entry.getValue() > 0) {
+                    sum += entry.getValue();
+                    selected.add(entry.getKey());
+                    cumulative.add(sum);
+                }
+            }
+            if (selected.isEmpty()) {
+                throw new IllegalArgumentException("The mix has no endpoints with positive weight.");
+            }
+            endpoints = selected.toArray(new Endpoint[0]);
+            cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        Endpoint pick(Random random) {
+            int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (value < cumulativeWeights[i]) {
+                    return endpoints[i];
+                }
+            }
+            throw new IllegalStateException("Weight out of range: " + value);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.benchmark.load;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Command line options of the {@link LoadDriver}, given as {@code --name=value}.
+ * Cardinalities and skews default to the ones of the {@code datagen} profile.
+ */
+@Data
+class LoadOptions {
+    private String gateway = "http://localhost:8080";
+    private int threads = 16;
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(60);
+    private int users = 10_000;
+    private int items = 50_000;
+    private double ownerSkew = 1.1;
+    private double itemPopularitySkew = 0.9;
+    private double bookerSkew = 0.8;
+    private long seed = 42;
+    private Map<Endpoint, Integer> mix = defaultMix();
+
+    static LoadOptions parse(String[] args) {
+        LoadOptions options = new LoadOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            switch (name) {
+                case "gateway":
+                    options.setGateway(value);
+                    break;
+                case "threads":
+                    options.setThreads(Integer.parseInt(value));
+                    break;
+                case "warmup":
+                    options.setWarmup(parseDuration(value));
+                    break;
+                case "duration":
+                    options.setDuration(parseDuration(value));
+                    break;
+                case "users":
+                    options.setUsers(Integer.parseInt(value));
+                    break;
+                case "items":
+                    options.setItems(Integer.parseInt(value));
+                    break;
+                case "owner-skew":
+                    options.setOwnerSkew(Double.parseDouble(value));
+                    break;
+                case "item-popularity-skew":
+                    options.setItemPopularitySkew(Double.parseDouble(value));
+                    break;
+                case "booker-skew":
+                    options.setBookerSkew(Double.parseDouble(value));
+                    break;
+                case "seed":
+                    options.setSeed(Long.parseLong(value));
+                    break;
+                case "mix":
+                    options.setMix(parseMix(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        return options;
+    }
+
+    /**
+     * @param value seconds, or a number followed by s or m, for example 90s or 5m.
+     */
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    /**
+     * @param value comma separated weights, for example {@code item=50,search=50}.
+     *              Endpoints that are not listed are not called.
+     */
+    private static Map<Endpoint, Integer> parseMix(String value) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected endpoint=weight but got " + entry);
+            }
+            mix.put(Endpoint.valueOf(parts[0].trim().toUpperCase().replace('-', '_')),
+                    Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+
+    private static Map<Endpoint, Integer> defaultMix() {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            mix.put(endpoint, endpoint.defaultWeight());
+        }
+        return mix;
+    }
+}
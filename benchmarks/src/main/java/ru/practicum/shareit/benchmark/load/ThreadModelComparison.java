@@ -0,0 +1,184 @@
+package ru.practicum.shareit.benchmark.load;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares request handling of the server on platform threads with the {@code virtual-threads} profile.
+ * For each mode the server jar is started with the data generator, every client count of the
+ * {@link LoadDriver} is run against it directly, bypassing the gateway, and the server is stopped.
+ * The default mix covers the item and booking endpoints.
+ * <p>
+ * Options of the comparison come first, all other options are passed to the {@link LoadDriver}.
+ * The virtual mode needs a Java 21 runtime given with {@code --java}, both modes are run on it, and an
+ * older runtime is refused before any load is run. The totals of both modes are summarized side by side
+ * at the end and written to the file given with {@code --results}:
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar ru.practicum.shareit.benchmark.load.ThreadModelComparison \
+ *     --java=/opt/jdk-21/bin/java --clients=50,200,800 --duration=1m --results=thread-models.txt
+ * </pre>
+ * Against the in-memory H2 database of the {@code ci} profile requests hardly wait for I/O, so the
+ * difference shows with Postgres, for example {@code --profiles=datagen
+ * --server-arg=--spring.datasource.url=jdbc:postgresql://db:5432/shareit}.
+ */
+public final class ThreadModelComparison {
+    private static final String DEFAULT_MIX = "item=30,owner-items=15,search=15,bookings=10,owner-bookings=10,book=10";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(5);
+    private static final int VIRTUAL_THREADS_JAVA_VERSION = 21;
+    private static final Pattern SPECIFICATION_VERSION = Pattern.compile("java\\.specification\\.version = (\\d+)");
+
+    private ThreadModelComparison() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        String serverJar = "server/target/shareit-server-0.0.1-SNAPSHOT-exec.jar";
+        int port = 9190;
+        String profiles = "ci,datagen";
+        List<String> serverArgs = new ArrayList<>();
+        int[] clients = {50, 200, 800};
+        File resultsFile = new File(System.getProperty("java.io.tmpdir"), "shareit-thread-model-comparison.txt");
+        List<String> loadArgs = new ArrayList<>(List.of("--mix=" + DEFAULT_MIX));
+        for (String arg : args) {
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--java=")) {
+                java = value;
+            } else if (arg.startsWith("--server-jar=")) {
+                serverJar = value;
+            } else if (arg.startsWith("--port=")) {
+                port = Integer.parseInt(value);
+            } else if (arg.startsWith("--profiles=")) {
+                profiles = value;
+            } else if (arg.startsWith("--server-arg=")) {
+                serverArgs.add(value);
+            } else if (arg.startsWith("--clients=")) {
+                clients = Arrays.stream(value.split(",")).mapToInt(c -> Integer.parseInt(c.trim())).toArray();
+            } else if (arg.startsWith("--results=")) {
+                resultsFile = new File(value);
+            } else {
+                loadArgs.add(arg);
+            }
+        }
+        LoadOptions options = LoadOptions.parse(loadArgs.toArray(new String[0]));
+        options.setGateway("http://localhost:" + port);
+        int javaVersion = javaVersion(java);
+        if (javaVersion < VIRTUAL_THREADS_JAVA_VERSION) {
+            throw new IllegalStateException("The virtual mode needs Java " + VIRTUAL_THREADS_JAVA_VERSION
+                    + " or newer, " + java + " is Java " + javaVersion + ", give another runtime with --java");
+        }
+
+        Map<Integer, Map<String, LatencyRecorder>> totals = new TreeMap<>();
+        for (String mode : List.of("platform", "virtual")) {
+            String modeProfiles = "virtual".equals(mode) ? profiles + ",virtual-threads" : profiles;
+            List<String> command = new ArrayList<>(List.of(java, "-jar", serverJar,
+                    "--server.port=" + port,
+                    "--spring.profiles.active=" + modeProfiles,
+                    "--spring.jpa.properties.hibernate.show_sql=false",
+                    "--management.endpoint.health.probes.enabled=true",
+                    "--shareit.datagen.users=" + options.getUsers(),
+                    "--shareit.datagen.items=" + options.getItems()));
+            command.addAll(serverArgs);
+            File log = new File(System.getProperty("java.io.tmpdir"), "shareit-server-" + mode + ".log");
+            Process server = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(log)
+                    .start();
+            try {
+                awaitStartup(server, options.getGateway(), log);
+                for (int clientCount : clients) {
+                    options.setThreads(clientCount);
+                    System.out.printf("%n%s threads, %d clients%n", mode, clientCount);
+                    Map<Endpoint, LatencyRecorder> results = LoadDriver.run(options);
+                    LoadDriver.printReport(results, options.getDuration());
+                    LatencyRecorder total = new LatencyRecorder();
+                    results.values().forEach(total::merge);
+                    totals.computeIfAbsent(clientCount, c -> new LinkedHashMap<>()).put(mode, total);
+                }
+            } finally {
+                server.destroy();
+                if (!server.waitFor(30, TimeUnit.SECONDS)) {
+                    server.destroyForcibly();
+                }
+            }
+        }
+
+        System.out.printf("%nJava %d, totals by client count%n", javaVersion);
+        printSummary(System.out, totals, options.getDuration());
+        try (PrintStream results = new PrintStream(resultsFile, StandardCharsets.UTF_8)) {
+            results.printf("Java %d, %s, mix %s%n", javaVersion, String.join(" ", args), DEFAULT_MIX);
+            printSummary(results, totals, options.getDuration());
+        }
+        System.out.println("Results written to " + resultsFile);
+    }
+
+    private static void printSummary(PrintStream out, Map<Integer, Map<String, LatencyRecorder>> totals,
+                                     Duration duration) {
+        String format = "%8s %-9s %10s %10s %12s %9s %9s %9s%n";
+        out.printf(format, "clients", "threads", "requests", "non-2xx", "throughput/s", "p50 ms", "p99 ms", "max ms");
+        totals.forEach((clients, byMode) -> byMode.forEach((mode, total) -> {
+            total.sort();
+            out.printf(format, clients, mode, total.count(), total.failures(),
+                    String.format("%.1f", total.count() / (duration.toMillis() / 1000.0)),
+                    LoadDriver.millis(total.percentileNanos(50)), LoadDriver.millis(total.percentileNanos(99)),
+                    LoadDriver.millis(total.percentileNanos(100)));
+        }));
+    }
+
+    /**
+     * Reads the feature version of the given runtime, for example 21 or 1 for Java 8.
+     */
+    private static int javaVersion(String java) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(java, "-XshowSettings:properties", "-version")
+                .redirectErrorStream(true)
+                .start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        process.waitFor();
+        Matcher matcher = SPECIFICATION_VERSION.matcher(output);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Could not read the version of " + java + ":\n" + output);
+        }
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    /**
+     * Waits for readiness, which unlike health is only reported once the data generator has finished.
+     */
+    private static void awaitStartup(Process server, String baseUrl, File log) throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health/readiness"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!server.isAlive()) {
+                throw new IllegalStateException("The server exited with code " + server.exitValue() + ", see " + log);
+            }
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(1000);
+        }
+        throw new IllegalStateException("The server did not start within " + STARTUP_TIMEOUT + ", see " + log);
+    }
+}
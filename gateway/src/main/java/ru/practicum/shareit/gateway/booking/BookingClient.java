@@ -1,57 +1,64 @@
 package ru.practicum.shareit.gateway.booking;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.gateway.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.gateway.booking.dto.BookingState;
 import ru.practicum.shareit.gateway.client.BaseClient;
+import ru.practicum.shareit.gateway.client.UpstreamGuardFactory;
 
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    private final Duration bulkTimeout;
+
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl,
+                         @Value("${shareit-server.bulk-timeout}") Duration bulkTimeout,
+                         WebClient.Builder builder,
+                         UpstreamGuardFactory upstreamGuardFactory) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build(),
+                upstreamGuardFactory.create(API_PREFIX),
+                upstreamGuardFactory.createStreaming(API_PREFIX),
+                null);
+        this.bulkTimeout = bulkTimeout;
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getBookings(long userId, BookingState state, Integer from, Integer size, String cursor) {
+        return get(withCursor("?state={state}&from={from}&size={size}", cursor), userId,
+                listingParameters(state, from, size, cursor));
     }
 
-    public ResponseEntity<Object> getBookingsOfOwner(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getBookingsOfOwner(long userId, BookingState state, Integer from, Integer size, String cursor) {
+        return get(withCursor("/owner?state={state}&from={from}&size={size}", cursor), userId,
+                listingParameters(state, from, size, cursor));
+    }
+
+    public Mono<ResponseEntity<ResponseBodyEmitter>> exportBookings(long userId) {
+        return getStream("/export", userId, bulkTimeout);
     }
 
-    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> exportBookingsOfOwner(long userId) {
+        return getStream("/owner/export", userId, bulkTimeout);
+    }
+
+    public Mono<ResponseEntity<ResponseBodyEmitter>> bookItem(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> updateBooking(long bookingId, boolean approved, long userId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> updateBooking(long bookingId, boolean approved, long userId) {
         Map<String, Object> params = Map.of(
                 "approved", approved
         );
@@ -59,4 +66,19 @@ public class BookingClient extends BaseClient {
         return patch(path, userId, params, null);
     }
 
+    private static String withCursor(String path, String cursor) {
+        return cursor == null ? path : path + "&cursor={cursor}";
+    }
+
+    private static Map<String, Object> listingParameters(BookingState state, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
+    }
+
 }
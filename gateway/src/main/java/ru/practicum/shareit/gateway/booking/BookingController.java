@@ -6,6 +6,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.gateway.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.gateway.booking.dto.BookingState;
 import ru.practicum.shareit.gateway.error.GatewayException;
@@ -25,16 +27,16 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader(USER_HEADER) long userId,
-                                           @RequestBody @Valid BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> bookItem(@RequestHeader(USER_HEADER) long userId,
+                                                              @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.bookItem(userId, requestDto);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> updateStatus(@PathVariable("bookingId") Long bookingId,
-                                               @RequestParam("approved") boolean approved,
-                                               @RequestHeader(USER_HEADER) long userId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> updateStatus(@PathVariable("bookingId") Long bookingId,
+                                                                  @RequestParam("approved") boolean approved,
+                                                                  @RequestHeader(USER_HEADER) long userId) {
         log.info(
                 "Received PATCH request to update approval status of Booking with ID={} to status={}",
                 bookingId,
@@ -44,28 +46,30 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader(USER_HEADER) long userId,
-                                             @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getBooking(@RequestHeader(USER_HEADER) long userId,
+                                                                @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader(USER_HEADER) long userId,
-                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getBookings(@RequestHeader(USER_HEADER) long userId,
+                                                                 @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                                 @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                 @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                                 @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new GatewayException(HttpStatus.BAD_REQUEST.value(), "Unknown state: " + stateParam));
         log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        return bookingClient.getBookings(userId, state, from, size, cursor);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsOfOwner(@RequestHeader(USER_HEADER) long ownerId,
-                                                     @RequestParam(name = "state", defaultValue = "all") String stateParam,
-                                                     @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                     @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getBookingsOfOwner(@RequestHeader(USER_HEADER) long ownerId,
+                                                                        @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                                        @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                        @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                                        @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new GatewayException(HttpStatus.BAD_REQUEST.value(), "Unknown state: " + stateParam));
         log.info(
@@ -73,7 +77,25 @@ public class BookingController {
                 ownerId,
                 state
         );
-        return bookingClient.getBookingsOfOwner(ownerId, state, from, size);
+        return bookingClient.getBookingsOfOwner(ownerId, state, from, size, cursor);
+    }
+
+    /**
+     * Whole booking history of the user as NDJSON, streamed from the server as it is read.
+     */
+    @GetMapping("/export")
+    public Mono<ResponseEntity<ResponseBodyEmitter>> exportBookings(@RequestHeader(USER_HEADER) long userId) {
+        log.info("Export bookings, userId={}", userId);
+        return bookingClient.exportBookings(userId);
+    }
+
+    /**
+     * Whole booking history of the owner's items as NDJSON, streamed from the server as it is read.
+     */
+    @GetMapping("/owner/export")
+    public Mono<ResponseEntity<ResponseBodyEmitter>> exportBookingsOfOwner(@RequestHeader(USER_HEADER) long ownerId) {
+        log.info("Received request to export all bookings of owner with id={}", ownerId);
+        return bookingClient.exportBookingsOfOwner(ownerId);
     }
 
 }
@@ -1,125 +1,379 @@
 package ru.practicum.shareit.gateway.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import org.springframework.http.HttpEntity;
+import lombok.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+/**
+ * Non-blocking proxy to shareit-server. Requests are sent by WebClient over Reactor Netty,
+ * so no thread waits for the server: controllers return the {@link Mono} and Spring MVC
+ * completes the request asynchronously once the server answers. Response bodies are never
+ * deserialized: the server bytes are relayed to the client through a {@link ResponseBodyEmitter},
+ * streamed for writes and buffered for GETs, which are coalesced.
+ */
 public class BaseClient {
-    protected final RestTemplate rest;
+    /**
+     * Token of the next page of keyset-paginated listings.
+     */
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    /**
+     * Server response headers relayed to the client. Hop-by-hop and framing headers are left to the servlet
+     * container since the body is re-chunked.
+     */
+    private static final List<String> PASSTHROUGH_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED,
+            HttpHeaders.LOCATION,
+            HttpHeaders.RETRY_AFTER,
+            NEXT_CURSOR_HEADER);
+    private static final int STREAM_BUFFER_SIZE = 8192;
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
+    protected final WebClient webClient;
+    private final UpstreamGuard upstreamGuard;
+    private final UpstreamGuard streamGuard;
+    @Nullable
+    private final GatewayResponseCache responseCache;
+    private final ConcurrentMap<InFlightKey, Mono<ResponseEntity<byte[]>>> inFlight = new ConcurrentHashMap<>();
+
+    public BaseClient(WebClient webClient, UpstreamGuard upstreamGuard) {
+        this(webClient, upstreamGuard, upstreamGuard, null);
+    }
+
+    public BaseClient(WebClient webClient, UpstreamGuard upstreamGuard, @Nullable GatewayResponseCache responseCache) {
+        this(webClient, upstreamGuard, upstreamGuard, responseCache);
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    /**
+     * @param streamGuard guard of {@link #postStream} and {@link #getStream} calls
+     */
+    public BaseClient(WebClient webClient,
+                      UpstreamGuard upstreamGuard,
+                      UpstreamGuard streamGuard,
+                      @Nullable GatewayResponseCache responseCache) {
+        this.webClient = webClient;
+        this.upstreamGuard = upstreamGuard;
+        this.streamGuard = streamGuard;
+        this.responseCache = responseCache;
+    }
+
+    protected Mono<ResponseEntity<ResponseBodyEmitter>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<ResponseBodyEmitter>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<ResponseBodyEmitter>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    /**
+     * GET through the response cache. A cached response is revalidated with its ETag and served
+     * if the server answers 304; a fresh 200 with an ETag replaces it. The body is buffered to be cached.
+     */
+    protected Mono<ResponseEntity<ResponseBodyEmitter>> getCached(String path) {
+        return getCached(path, null);
+    }
+
+    protected Mono<ResponseEntity<ResponseBodyEmitter>> getCached(String path, @Nullable Long userId) {
+        if (responseCache == null) {
+            return get(path, userId, null);
+        }
+        GatewayResponseCache.Entry cached = responseCache.get(path, userId);
+        return exchangeShared(path, userId, null, cached != null ? cached.getEtag() : null)
+                .map(response -> {
+                    if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                        return bufferedResponse(HttpStatus.OK.value(), cached.getHeaders(), cached.getBody());
+                    }
+                    HttpHeaders headers = passthroughHeaders(response.getHeaders());
+                    byte[] body = bodyOf(response);
+                    String etag = response.getHeaders().getETag();
+                    if (response.getStatusCode() == HttpStatus.OK && etag != null) {
+                        responseCache.put(path, userId, new GatewayResponseCache.Entry(etag, headers, body));
+                    } else {
+                        responseCache.evict(path, userId);
+                    }
+                    return bufferedResponse(response.getStatusCodeValue(), headers, body);
+                });
+    }
+
+    /**
+     * Evicts the cached GET responses of the path for all users once the server has answered the write.
+     */
+    protected Mono<ResponseEntity<ResponseBodyEmitter>> evictingCached(String path,
+                                                                     Mono<ResponseEntity<ResponseBodyEmitter>> write) {
+        if (responseCache == null) {
+            return write;
+        }
+        return write.doOnSuccess(response -> responseCache.evict(path));
+    }
+
+    protected <T> Mono<ResponseEntity<ResponseBodyEmitter>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<ResponseBodyEmitter>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<ResponseBodyEmitter>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<ResponseBodyEmitter>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<ResponseBodyEmitter>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<ResponseBodyEmitter>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<ResponseBodyEmitter>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<ResponseBodyEmitter>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<ResponseBodyEmitter>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    /**
+     * Streams an NDJSON body to the server as it is read from the client and relays the answer as it arrives,
+     * so a bulk request is never held in memory. The response may take longer than the async request timeout,
+     * it is bounded by {@code timeout} instead.
+     */
+    protected Mono<ResponseEntity<ResponseBodyEmitter>> postStream(String path,
+                                                                   @Nullable Long userId,
+                                                                   InputStream body,
+                                                                   Duration timeout) {
+        Flux<DataBuffer> chunks = DataBufferUtils.readInputStream(() -> body,
+                        DefaultDataBufferFactory.sharedInstance, STREAM_BUFFER_SIZE)
+                .subscribeOn(Schedulers.boundedElastic());
+        return stream(webClient.post()
+                .uri(path)
+                .headers(headers -> {
+                    setStreamHeaders(headers, userId);
+                    headers.setContentType(MediaType.APPLICATION_NDJSON);
+                })
+                .body(chunks, DataBuffer.class), timeout);
+    }
+
+    /**
+     * GET of an NDJSON export relayed as it arrives. Unlike other GETs it is neither buffered nor coalesced,
+     * and it is bounded by {@code timeout} instead of the async request timeout.
+     */
+    protected Mono<ResponseEntity<ResponseBodyEmitter>> getStream(String path, @Nullable Long userId, Duration timeout) {
+        return stream(webClient.get()
+                .uri(path)
+                .headers(headers -> setStreamHeaders(headers, userId)), timeout);
+    }
+
+    protected Mono<ResponseEntity<ResponseBodyEmitter>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<ResponseBodyEmitter>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<ResponseBodyEmitter>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method,
-                                                          String path,
-                                                          Long userId,
-                                                          @Nullable Map<String, Object> parameters,
-                                                          @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+    private <T> Mono<ResponseEntity<ResponseBodyEmitter>> makeAndSendRequest(HttpMethod method,
+                                                                             String path,
+                                                                             Long userId,
+                                                                             @Nullable Map<String, Object> parameters,
+                                                                             @Nullable T body) {
+        if (method == HttpMethod.GET) {
+            return exchangeShared(path, userId, parameters, null)
+                    .map(response -> bufferedResponse(response.getStatusCodeValue(),
+                            passthroughHeaders(response.getHeaders()),
+                            bodyOf(response)));
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> setDefaultHeaders(headers, userId));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+        return requestWithBody.retrieve()
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .transform(upstreamGuard::protectStream)
+                .map(response -> prepareGatewayResponse(response, new ResponseBodyEmitter()));
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
-        HttpHeaders headers = new HttpHeaders();
+    /**
+     * Sends a GET unless an identical one, same path, parameters, user and validator, is already in flight;
+     * in that case the pending response is shared, so the server sees one call per distinct request
+     * however many clients ask at once. The body is buffered to be handed to every waiting caller.
+     * A call leaves the in-flight map before its result is delivered, so later requests are sent anew.
+     */
+    private Mono<ResponseEntity<byte[]>> exchangeShared(String path,
+                                                        @Nullable Long userId,
+                                                        @Nullable Map<String, Object> parameters,
+                                                        @Nullable String ifNoneMatch) {
+        InFlightKey key = new InFlightKey(path, parameters, userId, ifNoneMatch);
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> webClient.get()
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> {
+                    setDefaultHeaders(headers, userId);
+                    if (ifNoneMatch != null) {
+                        headers.setIfNoneMatch(ifNoneMatch);
+                    }
+                })
+                .retrieve()
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntity(byte[].class)
+                .transform(upstreamGuard::protect)
+                .doOnTerminate(() -> inFlight.remove(k))
+                .cache()));
+    }
+
+    private Mono<ResponseEntity<ResponseBodyEmitter>> stream(WebClient.RequestHeadersSpec<?> request, Duration timeout) {
+        return request.retrieve()
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .transform(streamGuard::protectStream)
+                .map(response -> prepareGatewayResponse(response, new ResponseBodyEmitter(timeout.toMillis())));
+    }
+
+    private static void setStreamHeaders(HttpHeaders headers, @Nullable Long userId) {
+        setDefaultHeaders(headers, userId);
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON));
+    }
+
+    private static void setDefaultHeaders(HttpHeaders headers, Long userId) {
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
         if (userId != null) {
             headers.set("X-Sharer-User-Id", String.valueOf(userId));
         }
+    }
+
+    /**
+     * Relays the server response as is: status, {@link #PASSTHROUGH_HEADERS} and body chunks in the order
+     * they arrive. Chunks are written on a bounded elastic thread because servlet output is blocking.
+     * When the client goes away or the emitter times out, the server response is cancelled and the
+     * chunks that were not written are released.
+     */
+    private static ResponseEntity<ResponseBodyEmitter> prepareGatewayResponse(ResponseEntity<Flux<DataBuffer>> response,
+                                                                              ResponseBodyEmitter emitter) {
+        Flux<DataBuffer> body = response.getBody() != null ? response.getBody() : Flux.empty();
+        EmitterRelay relay = new EmitterRelay(emitter);
+        body.publishOn(Schedulers.boundedElastic())
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                .subscribe(relay);
+        emitter.onTimeout(relay::dispose);
+        emitter.onError(error -> relay.dispose());
+        emitter.onCompletion(relay::dispose);
+
+        return ResponseEntity.status(response.getStatusCodeValue())
+                .headers(passthroughHeaders(response.getHeaders()))
+                .body(emitter);
+    }
+
+    private static ResponseEntity<ResponseBodyEmitter> bufferedResponse(int status, HttpHeaders headers, byte[] body) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        if (body.length > 0) {
+            try {
+                emitter.send(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        emitter.complete();
+        return ResponseEntity.status(status)
+                .headers(headers)
+                .body(emitter);
+    }
+
+    private static byte[] bodyOf(ResponseEntity<byte[]> response) {
+        return response.getBody() != null ? response.getBody() : new byte[0];
+    }
+
+    private static HttpHeaders passthroughHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        PASSTHROUGH_HEADERS.forEach(name -> {
+            List<String> values = serverHeaders.get(name);
+            if (values != null) {
+                headers.addAll(name, values);
+            }
+        });
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
+    /**
+     * Writes server chunks to the emitter and releases each one once written. A failed write means the
+     * client went away and the emitter has already failed, so the server response is just cancelled.
+     */
+    private static class EmitterRelay extends BaseSubscriber<DataBuffer> {
+        private final ResponseBodyEmitter emitter;
+
+        EmitterRelay(ResponseBodyEmitter emitter) {
+            this.emitter = emitter;
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        @Override
+        protected void hookOnNext(DataBuffer chunk) {
+            try {
+                byte[] bytes = new byte[chunk.readableByteCount()];
+                chunk.read(bytes);
+                emitter.send(bytes);
+            } catch (IOException e) {
+                cancel();
+            } finally {
+                DataBufferUtils.release(chunk);
+            }
+        }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        @Override
+        protected void hookOnError(Throwable error) {
+            emitter.completeWithError(error);
         }
 
-        return responseBuilder.build();
+        @Override
+        protected void hookOnComplete() {
+            emitter.complete();
+        }
+    }
+
+    @Value
+    private static class InFlightKey {
+        String path;
+        Map<String, Object> parameters;
+        Long userId;
+        String ifNoneMatch;
     }
 }
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.gateway.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+
+/**
+ * Successful GET responses of one client, keyed by request path and user, bounded by size.
+ * Entries are never served without revalidation: the server is asked with If-None-Match
+ * and only a 304 lets the cached body be used, so an entry costs a round trip but no body transfer.
+ * Hit, miss and eviction counts are exported as {@code cache.*} metrics tagged with the cache name.
+ */
+public class GatewayResponseCache {
+    private final Cache<Key, Entry> cache;
+
+    public GatewayResponseCache(String name, long maximumSize, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+    }
+
+    @Nullable
+    public Entry get(String path, @Nullable Long userId) {
+        return cache.getIfPresent(new Key(path, userId));
+    }
+
+    public void put(String path, @Nullable Long userId, Entry entry) {
+        cache.put(new Key(path, userId), entry);
+    }
+
+    public void evict(String path, @Nullable Long userId) {
+        cache.invalidate(new Key(path, userId));
+    }
+
+    /**
+     * Evicts the entries of all users for the path. Scans the cache, which is fine as long as
+     * writes are much rarer than reads.
+     */
+    public void evict(String path) {
+        cache.asMap().keySet().removeIf(key -> key.getPath().equals(path));
+    }
+
+    @Value
+    private static class Key {
+        String path;
+        Long userId;
+    }
+
+    @Value
+    public static class Entry {
+        String etag;
+        HttpHeaders headers;
+        byte[] body;
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.gateway.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class GatewayResponseCacheFactory {
+    private final ShareItServerClientProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public GatewayResponseCache create(String name) {
+        return new GatewayResponseCache(name, properties.getResponseCacheMaximumSize(), meterRegistry);
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.gateway.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connection pool and timeouts of the gateway clients, bound from {@code shareit-server.*}.
+ */
+@Data
+@ConfigurationProperties("shareit-server")
+public class ShareItServerClientProperties {
+    private String url;
+    /**
+     * Pool size per server address. All clients talk to the same server, so this is the max per route.
+     */
+    private int maxConnections = 500;
+    /**
+     * Requests waiting for a free connection beyond which new requests are rejected.
+     */
+    private int pendingAcquireMaxCount = 10_000;
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    /**
+     * Max time to wait for the server response once the request is sent.
+     */
+    private Duration readTimeout = Duration.ofSeconds(10);
+    /**
+     * Max duration of a streamed NDJSON bulk import or export, which the async request timeout doesn't apply to.
+     */
+    private Duration bulkTimeout = Duration.ofMinutes(10);
+    /**
+     * Idle connections are closed after this time, so the pool shrinks after load spikes.
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+    /**
+     * Connection TTL: connections are retired after this time even if busy all along.
+     */
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+    /**
+     * Period of the background sweep evicting idle and expired connections.
+     */
+    private Duration evictionInterval = Duration.ofSeconds(30);
+    /**
+     * Max number of GET responses kept for revalidation by each client.
+     */
+    private long responseCacheMaximumSize = 10_000;
+    private final BulkheadProperties bulkhead = new BulkheadProperties();
+    private final CircuitBreakerProperties circuitBreaker = new CircuitBreakerProperties();
+    private final LimiterProperties limiter = new LimiterProperties();
+
+    /**
+     * Isolation of the routes from each other, applied to each of bookings, items, users and requests.
+     */
+    @Data
+    public static class BulkheadProperties {
+        private int maxConcurrentCalls = 200;
+        /**
+         * Concurrent NDJSON imports and exports of a route. They have a guard of their own, so long streams
+         * cannot take the capacity of the other calls of the route.
+         */
+        private int maxConcurrentStreams = 20;
+    }
+
+    /**
+     * Opens when the failure or slow call rate of a route exceeds its threshold; 5xx answers count as failures.
+     */
+    @Data
+    public static class CircuitBreakerProperties {
+        private float failureRateThreshold = 50;
+        private float slowCallRateThreshold = 80;
+        private Duration slowCallDurationThreshold = Duration.ofSeconds(2);
+        private int slidingWindowSize = 100;
+        private int minimumNumberOfCalls = 20;
+        private int permittedNumberOfCallsInHalfOpenState = 10;
+        private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+    }
+
+    /**
+     * AIMD concurrency limit of a route, kept between min and max limit.
+     */
+    @Data
+    public static class LimiterProperties {
+        private int initialLimit = 50;
+        private int minLimit = 5;
+        private int maxLimit = 200;
+        private double backoffRatio = 0.9;
+        /**
+         * Calls slower than this are taken as a sign of congestion and shrink the limit.
+         */
+        private Duration latencyThreshold = Duration.ofSeconds(1);
+    }
+}
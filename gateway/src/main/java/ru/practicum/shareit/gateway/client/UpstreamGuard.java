@@ -0,0 +1,192 @@
+package ru.practicum.shareit.gateway.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.gateway.error.UpstreamUnavailableException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Protects the server calls of one route. A call has to pass the circuit breaker, open while the route
+ * fails or is slow, the bulkhead, which caps the concurrent calls of the route so a slow route cannot
+ * take the whole connection pool, and the adaptive limiter. A refused call fails at once with
+ * {@link UpstreamUnavailableException} instead of waiting. Rejections are counted as
+ * {@code gateway.requests.rejected}, the limiter state is published as {@code gateway.limiter.*} gauges.
+ */
+public class UpstreamGuard {
+    private static final Duration RETRY_AFTER_OVERLOAD = Duration.ofSeconds(1);
+    private static final Throwable SERVER_ERROR = new ServerErrorResponse();
+
+    private final String route;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final AimdConcurrencyLimiter limiter;
+    private final Duration retryAfterOpen;
+    private final Counter rejectedByCircuitBreaker;
+    private final Counter rejectedByBulkhead;
+    private final Counter rejectedByLimiter;
+
+    public UpstreamGuard(String route,
+                         CircuitBreaker circuitBreaker,
+                         Bulkhead bulkhead,
+                         AimdConcurrencyLimiter limiter,
+                         Duration retryAfterOpen,
+                         MeterRegistry meterRegistry) {
+        this.route = route;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.limiter = limiter;
+        this.retryAfterOpen = retryAfterOpen;
+        this.rejectedByCircuitBreaker = rejectedCounter(meterRegistry, route, "circuit_open");
+        this.rejectedByBulkhead = rejectedCounter(meterRegistry, route, "bulkhead_full");
+        this.rejectedByLimiter = rejectedCounter(meterRegistry, route, "limit_exceeded");
+        meterRegistry.gauge("gateway.limiter.limit", Tags.of("route", route),
+                limiter, AimdConcurrencyLimiter::getLimit);
+        meterRegistry.gauge("gateway.limiter.in.flight", Tags.of("route", route),
+                limiter, AimdConcurrencyLimiter::getInFlight);
+    }
+
+    /**
+     * Admits the call if the route has capacity. The outcome is taken when the response status is known:
+     * 5xx answers and errors count as failures, and their permits are released in any case.
+     */
+    public <T> Mono<ResponseEntity<T>> protect(Mono<ResponseEntity<T>> call) {
+        return admit().flatMap(permit -> call
+                .doOnSuccess(permit::onResponse)
+                .doOnError(permit::onError)
+                .doOnCancel(permit::onCancel));
+    }
+
+    /**
+     * Same as {@link #protect} for a response whose body is streamed. The outcome is taken when the headers
+     * arrive, so a long body counts neither as a slow call nor as congestion, and only the bulkhead permit
+     * is held until the body completes, fails or is cancelled.
+     */
+    public <T> Mono<ResponseEntity<Flux<T>>> protectStream(Mono<ResponseEntity<Flux<T>>> call) {
+        return admit().flatMap(permit -> call
+                .map(response -> {
+                    permit.bodyStarted = true;
+                    permit.record(response);
+                    Flux<T> body = response.getBody() != null ? response.getBody() : Flux.empty();
+                    return new ResponseEntity<>(body.doFinally(signal -> permit.releaseBulkhead()),
+                            response.getHeaders(), response.getStatusCode());
+                })
+                .doOnSuccess(response -> {
+                    if (response == null) {
+                        permit.onResponse(null);
+                    }
+                })
+                .doOnError(permit::onError)
+                .doOnCancel(() -> {
+                    if (!permit.bodyStarted) {
+                        permit.onCancel();
+                    }
+                }));
+    }
+
+    private Mono<Permit> admit() {
+        return Mono.defer(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                rejectedByCircuitBreaker.increment();
+                return Mono.error(new UpstreamUnavailableException(
+                        "Server is unavailable for " + route + ", circuit breaker is open.", retryAfterOpen));
+            }
+            if (!bulkhead.tryAcquirePermission()) {
+                circuitBreaker.releasePermission();
+                rejectedByBulkhead.increment();
+                return Mono.error(new UpstreamUnavailableException(
+                        "Too many concurrent requests to " + route + ".", RETRY_AFTER_OVERLOAD));
+            }
+            if (!limiter.tryAcquire()) {
+                bulkhead.onComplete();
+                circuitBreaker.releasePermission();
+                rejectedByLimiter.increment();
+                return Mono.error(new UpstreamUnavailableException(
+                        "Server is overloaded, request to " + route + " is shed.", RETRY_AFTER_OVERLOAD));
+            }
+            return Mono.just(new Permit(System.nanoTime()));
+        });
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String route, String reason) {
+        return Counter.builder("gateway.requests.rejected")
+                .tag("route", route)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private class Permit {
+        private final long startNanos;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+        private final AtomicBoolean bulkheadReleased = new AtomicBoolean();
+        /**
+         * Set once a streamed response is handed on, from then on the body releases the bulkhead permit.
+         */
+        private volatile boolean bodyStarted;
+
+        Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        void onResponse(ResponseEntity<?> response) {
+            record(response);
+            releaseBulkhead();
+        }
+
+        void onError(Throwable error) {
+            if (recorded.compareAndSet(false, true)) {
+                circuitBreaker.onError(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS, error);
+                limiter.onDropped();
+            }
+            releaseBulkhead();
+        }
+
+        void onCancel() {
+            if (recorded.compareAndSet(false, true)) {
+                circuitBreaker.releasePermission();
+                limiter.onIgnored();
+            }
+            releaseBulkhead();
+        }
+
+        /**
+         * Reports the outcome to the circuit breaker and the limiter and releases the limiter permit.
+         */
+        void record(ResponseEntity<?> response) {
+            if (!recorded.compareAndSet(false, true)) {
+                return;
+            }
+            long latencyNanos = System.nanoTime() - startNanos;
+            if (response != null && response.getStatusCodeValue() >= 500) {
+                circuitBreaker.onError(latencyNanos, TimeUnit.NANOSECONDS, SERVER_ERROR);
+                limiter.onDropped();
+            } else {
+                circuitBreaker.onSuccess(latencyNanos, TimeUnit.NANOSECONDS);
+                limiter.onSuccess(latencyNanos);
+            }
+        }
+
+        void releaseBulkhead() {
+            if (bulkheadReleased.compareAndSet(false, true)) {
+                bulkhead.onComplete();
+            }
+        }
+    }
+
+    /**
+     * Recorded by the circuit breaker for a 5xx answer, which arrives as a response rather than an error.
+     */
+    private static class ServerErrorResponse extends RuntimeException {
+        ServerErrorResponse() {
+            super("Server answered with 5xx status", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.gateway.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Creates the {@link UpstreamGuard} of each route. Circuit breaker and bulkhead states are exported
+ * as {@code resilience4j.circuitbreaker.*} and {@code resilience4j.bulkhead.*} metrics tagged with the route.
+ */
+@Component
+public class UpstreamGuardFactory {
+    private final ShareItServerClientProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+
+    public UpstreamGuardFactory(ShareItServerClientProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        ShareItServerClientProperties.CircuitBreakerProperties circuitBreaker = properties.getCircuitBreaker();
+        this.circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(circuitBreaker.getFailureRateThreshold())
+                .slowCallRateThreshold(circuitBreaker.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(circuitBreaker.getSlowCallDurationThreshold())
+                .slidingWindowSize(circuitBreaker.getSlidingWindowSize())
+                .minimumNumberOfCalls(circuitBreaker.getMinimumNumberOfCalls())
+                .permittedNumberOfCallsInHalfOpenState(circuitBreaker.getPermittedNumberOfCallsInHalfOpenState())
+                .waitDurationInOpenState(circuitBreaker.getWaitDurationInOpenState())
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .build());
+        this.bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.getBulkhead().getMaxConcurrentCalls())
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+    }
+
+    public UpstreamGuard create(String route) {
+        return create(route, bulkheadRegistry.bulkhead(route));
+    }
+
+    /**
+     * Guard of the streamed NDJSON calls of the route, named {@code <route>/bulk}. It is separate from the
+     * guard of the route and admits at most {@code bulkhead.max-concurrent-streams} streams at once.
+     */
+    public UpstreamGuard createStreaming(String route) {
+        String streamRoute = route + "/bulk";
+        return create(streamRoute, bulkheadRegistry.bulkhead(streamRoute, BulkheadConfig.custom()
+                .maxConcurrentCalls(properties.getBulkhead().getMaxConcurrentStreams())
+                .maxWaitDuration(Duration.ZERO)
+                .build()));
+    }
+
+    private UpstreamGuard create(String route, Bulkhead bulkhead) {
+        ShareItServerClientProperties.LimiterProperties limiter = properties.getLimiter();
+        return new UpstreamGuard(route,
+                circuitBreakerRegistry.circuitBreaker(route),
+                bulkhead,
+                new AimdConcurrencyLimiter(limiter.getInitialLimit(),
+                        limiter.getMinLimit(),
+                        limiter.getMaxLimit(),
+                        limiter.getBackoffRatio(),
+                        limiter.getLatencyThreshold()),
+                properties.getCircuitBreaker().getWaitDurationInOpenState(),
+                meterRegistry);
+    }
+}
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.gateway.error;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -17,5 +18,17 @@ public class DefaultControllerAdvice {
         return new ResponseEntity<>(response, HttpStatus.valueOf(ex.getCode()));
     }
 
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleUpstreamUnavailableException(UpstreamUnavailableException ex) {
+        ErrorResponse response = ErrorResponse.builder()
+                .code(ex.getCode())
+                .error(ex.getMessage())
+                .build();
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(ex.getCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(response);
+    }
+
 
 }
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.gateway.error;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * Call to the server refused by the gateway to protect it, answered with 503 and Retry-After.
+ */
+public class UpstreamUnavailableException extends GatewayException {
+    @Getter
+    private final Duration retryAfter;
+
+    public UpstreamUnavailableException(String message, Duration retryAfter) {
+        super(HttpStatus.SERVICE_UNAVAILABLE.value(), message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Thrown for every shed request under overload, so the stack trace is not worth its cost.
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
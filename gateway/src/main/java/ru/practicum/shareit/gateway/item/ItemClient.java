@@ -1,15 +1,19 @@
 package ru.practicum.shareit.gateway.item;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.gateway.client.BaseClient;
+import ru.practicum.shareit.gateway.client.GatewayResponseCacheFactory;
+import ru.practicum.shareit.gateway.client.UpstreamGuardFactory;
 import ru.practicum.shareit.gateway.item.dto.CreateCommentDto;
 import ru.practicum.shareit.gateway.item.dto.CreateItemDto;
 
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.Map;
 
 @Service
@@ -17,31 +21,39 @@ public class ItemClient extends BaseClient {
 
     private static final String API_PREFIX = "/items";
 
+    private final Duration bulkTimeout;
+
     public ItemClient(@Value("${shareit-server.url}") String serverUrl,
-                      RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+                      @Value("${shareit-server.bulk-timeout}") Duration bulkTimeout,
+                      WebClient.Builder builder,
+                      UpstreamGuardFactory upstreamGuardFactory,
+                      GatewayResponseCacheFactory responseCacheFactory) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build(),
+                upstreamGuardFactory.create(API_PREFIX),
+                upstreamGuardFactory.createStreaming(API_PREFIX),
+                responseCacheFactory.create("gateway" + API_PREFIX));
+        this.bulkTimeout = bulkTimeout;
     }
 
-    public ResponseEntity<Object> createItem(long userId, CreateItemDto dto) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> createItem(long userId, CreateItemDto dto) {
         return post("", userId, dto);
     }
 
-    public ResponseEntity<Object> updateItem(long userId, CreateItemDto dto, long itemId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> importItems(long userId, InputStream body) {
+        return postStream("/bulk", userId, body, bulkTimeout);
+    }
+
+    public Mono<ResponseEntity<ResponseBodyEmitter>> updateItem(long userId, CreateItemDto dto, long itemId) {
         String path = String.format("/%d", itemId);
-        return patch(path, userId, dto);
+        return evictingCached(path, patch(path, userId, dto));
     }
 
-    public ResponseEntity<Object> getItemById(long itemId, long userId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getItemById(long itemId, long userId) {
         String path = String.format("/%d", itemId);
-        return get(path, userId);
+        return getCached(path, userId);
     }
 
-    public ResponseEntity<Object> getItemsForUser(long userId, int from, int size) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getItemsForUser(long userId, int from, int size) {
         Map<String, Object> params = Map.of(
                 "from", from,
                 "size", size
@@ -49,7 +61,7 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, params);
     }
 
-    public ResponseEntity<Object> searchItems(String query, int from, int size) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> searchItems(String query, int from, int size) {
         Map<String, Object> params = Map.of(
                 "text", query,
                 "from", from,
@@ -58,8 +70,8 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}&from={from}&size={size}", null, params);
     }
 
-    public ResponseEntity<Object> postComment(long itemId, long userId, CreateCommentDto dto) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> postComment(long itemId, long userId, CreateCommentDto dto) {
         String path = String.format("/%d/comment", itemId);
-        return post(path, userId, dto);
+        return evictingCached(String.format("/%d", itemId), post(path, userId, dto));
     }
 }
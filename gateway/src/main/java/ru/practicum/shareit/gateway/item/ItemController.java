@@ -2,15 +2,19 @@ package ru.practicum.shareit.gateway.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.gateway.item.dto.CreateCommentDto;
 import ru.practicum.shareit.gateway.item.dto.CreateItemDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/items")
@@ -24,8 +28,8 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader(value = USER_HEADER) Long userId,
-                                             @RequestBody @Valid CreateItemDto dto) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> createItem(@RequestHeader(value = USER_HEADER) Long userId,
+                                                                @RequestBody @Valid CreateItemDto dto) {
         log.info(
                 "Received POST request to create Item {} by user with id = {}",
                 dto,
@@ -34,10 +38,20 @@ public class ItemController {
         return itemClient.createItem(userId, dto);
     }
 
+    /**
+     * NDJSON bulk creation. Lines are validated by the server, which reports the outcome of each line.
+     */
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<ResponseBodyEmitter>> importItems(@RequestHeader(value = USER_HEADER) Long userId,
+                                                                 InputStream body) {
+        log.info("Received POST request to import Items in bulk by user with id = {}", userId);
+        return itemClient.importItems(userId, body);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(value = USER_HEADER) Long userId,
-                                             @RequestBody CreateItemDto dto,
-                                             @PathVariable("itemId") Long itemId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> updateItem(@RequestHeader(value = USER_HEADER) Long userId,
+                                                                @RequestBody CreateItemDto dto,
+                                                                @PathVariable("itemId") Long itemId) {
         log.info(
                 "Received PATCH request to update Item {} by user with id = {}",
                 dto,
@@ -47,32 +61,32 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@PathVariable("itemId") Long itemId,
-                                              @RequestHeader(USER_HEADER) Long userId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getItemById(@PathVariable("itemId") Long itemId,
+                                                                 @RequestHeader(USER_HEADER) Long userId) {
         log.info("Received request to GET Item by id = {}", itemId);
         return itemClient.getItemById(itemId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemsForUser(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
-                                                  @RequestParam(value = "from", defaultValue = "0", required = false) @PositiveOrZero int from,
-                                                  @RequestParam(value = "size", defaultValue = "10", required = false) @Positive int size) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getItemsForUser(@RequestHeader(value = "X-Sharer-User-Id") Long userId,
+                                                                     @RequestParam(value = "from", defaultValue = "0", required = false) @PositiveOrZero int from,
+                                                                     @RequestParam(value = "size", defaultValue = "10", required = false) @Positive int size) {
         log.info("Received request to GET items for user with id={}", userId);
         return itemClient.getItemsForUser(userId, from, size);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestParam("text") String query,
-                                              @RequestParam(value = "from", defaultValue = "0", required = false) @PositiveOrZero int from,
-                                              @RequestParam(value = "size", defaultValue = "10", required = false) @PositiveOrZero int size) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> searchItems(@RequestParam("text") String query,
+                                                                 @RequestParam(value = "from", defaultValue = "0", required = false) @PositiveOrZero int from,
+                                                                 @RequestParam(value = "size", defaultValue = "10", required = false) @PositiveOrZero int size) {
         log.info("Received GET request to search for items by query = {}", query);
         return itemClient.searchItems(query, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> postComment(@PathVariable("itemId") Long itemId,
-                                              @RequestHeader(USER_HEADER) Long userId,
-                                              @RequestBody @Valid CreateCommentDto dto) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> postComment(@PathVariable("itemId") Long itemId,
+                                                                 @RequestHeader(USER_HEADER) Long userId,
+                                                                 @RequestBody @Valid CreateCommentDto dto) {
         log.info(
                 "Received POST request to create comment to item with ID={} by user with ID={}",
                 itemId,
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.gateway.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import ru.practicum.shareit.gateway.error.ErrorResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the request rate of each user per endpoint group, before validation and proxying:
+ * a user over the limit gets 429 with Retry-After. Requests without a numeric X-Sharer-User-Id, such as
+ * searches, are limited per remote address instead, so leaving the header out does not lift the limit.
+ * Rejections are counted as {@code gateway.rate-limit.rejected} and bucket counts published as
+ * {@code gateway.rate-limit.buckets}, both tagged with the group.
+ */
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final boolean enabled;
+    private final List<GroupLimit> limits = new ArrayList<>();
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.enabled = properties.isEnabled();
+        this.objectMapper = objectMapper;
+        properties.getGroups().forEach((name, group) -> {
+            TokenBucketTable table = new TokenBucketTable(group.getRequestsPerSecond(),
+                    group.getBurst(),
+                    properties.getIdleTimeout(),
+                    properties.getMaximumBuckets());
+            Counter rejected = Counter.builder("gateway.rate-limit.rejected")
+                    .tag("group", name)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.rate-limit.buckets", table, TokenBucketTable::estimatedSize)
+                    .tag("group", name)
+                    .register(meterRegistry);
+            group.getPaths().forEach(path ->
+                    limits.add(new GroupLimit(PathPatternParser.defaultInstance.parse(path), table, rejected)));
+        });
+        limits.sort(Comparator.comparing(limit -> limit.pattern, PathPattern.SPECIFICITY_COMPARATOR));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                   HttpServletResponse response,
+                                   FilterChain filterChain) throws ServletException, IOException {
+        GroupLimit limit = findLimit(request);
+        if (limit == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long waitNanos = limit.table.tryAcquire(clientKey(request), System.nanoTime());
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        limit.rejected.increment();
+        reject(response, waitNanos);
+    }
+
+    @Nullable
+    private GroupLimit findLimit(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (GroupLimit limit : limits) {
+            if (limit.pattern.matches(path)) {
+                return limit;
+            }
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        ErrorResponse body = ErrorResponse.builder()
+                .code(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error("Too many requests, retry later.")
+                .build();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Long userId = parseUserId(request.getHeader(USER_HEADER));
+        return userId != null ? "user:" + userId : "address:" + request.getRemoteAddr();
+    }
+
+    @Nullable
+    private static Long parseUserId(@Nullable String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @AllArgsConstructor
+    private static class GroupLimit {
+        private final PathPattern pattern;
+        private final TokenBucketTable table;
+        private final Counter rejected;
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.gateway.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user request rate limits of endpoint groups, bound from {@code shareit-gateway.rate-limit.*}.
+ */
+@Data
+@ConfigurationProperties("shareit-gateway.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    /**
+     * Buckets of users idle for this long are dropped. Should be longer than burst / rate,
+     * the time an emptied bucket takes to refill, so that only full buckets are forgotten.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(5);
+    /**
+     * Upper bound of buckets kept per group, the least recently used beyond it are dropped.
+     */
+    private long maximumBuckets = 500_000;
+    private Map<String, Group> groups = new LinkedHashMap<>();
+
+    @Data
+    public static class Group {
+        /**
+         * Path patterns of the group. A request belongs to the group with the most specific matching pattern.
+         */
+        private List<String> paths = new ArrayList<>();
+        private double requestsPerSecond = 50;
+        private int burst = 100;
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets of the clients of one endpoint group. Each bucket is a single {@link AtomicLong} holding
+ * the theoretical arrival time of the next request (GCRA, the token bucket expressed as a time): a request
+ * moves it one emission interval ahead and is allowed if it stays within the burst tolerance of now.
+ * Buckets are updated with CAS, no locks are taken, and idle buckets are evicted by Caffeine.
+ */
+public class TokenBucketTable {
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final Cache<String, AtomicLong> buckets;
+
+    public TokenBucketTable(double requestsPerSecond, int burst, Duration idleTimeout, long maximumBuckets) {
+        this.emissionIntervalNanos = (long) (Duration.ofSeconds(1).toNanos() / requestsPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * burst;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout)
+                .maximumSize(maximumBuckets)
+                .build();
+    }
+
+    /**
+     * Takes a token of the client's bucket.
+     *
+     * @return 0 if the request is allowed, otherwise nanoseconds until a token is available
+     */
+    public long tryAcquire(String client, long nowNanos) {
+        AtomicLong theoreticalArrival = buckets.get(client, key -> new AtomicLong(nowNanos));
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long wait = next - nowNanos - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public long estimatedSize() {
+        return buckets.estimatedSize();
+    }
+}
@@ -1,12 +1,14 @@
 package ru.practicum.shareit.gateway.request;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.gateway.client.BaseClient;
+import ru.practicum.shareit.gateway.client.GatewayResponseCacheFactory;
+import ru.practicum.shareit.gateway.client.UpstreamGuardFactory;
 import ru.practicum.shareit.gateway.request.dto.CreateItemRequestDto;
 
 import java.util.Map;
@@ -16,24 +18,24 @@ public class RequestClient extends BaseClient {
 
     private static final String API_PREFIX = "/requests";
 
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl,
+                         WebClient.Builder builder,
+                         UpstreamGuardFactory upstreamGuardFactory,
+                         GatewayResponseCacheFactory responseCacheFactory) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build(),
+                upstreamGuardFactory.create(API_PREFIX),
+                responseCacheFactory.create("gateway" + API_PREFIX));
     }
 
-    public ResponseEntity<Object> addRequest(long userid, CreateItemRequestDto dto) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> addRequest(long userid, CreateItemRequestDto dto) {
         return post("", userid, dto);
     }
 
-    public ResponseEntity<Object> getRequestsOfUser(long userId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getRequestsOfUser(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(long userId, int from, int size) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getAllRequests(long userId, int from, int size) {
         Map<String, Object> params = Map.of(
                 "from", from,
                 "size", size
@@ -41,9 +43,9 @@ public class RequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", userId, params);
     }
 
-    public ResponseEntity<Object> getRequest(long userId, long requestId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getRequest(long userId, long requestId) {
         String path = String.format("/%d", requestId);
-        return get(path, userId);
+        return getCached(path, userId);
     }
 
 }
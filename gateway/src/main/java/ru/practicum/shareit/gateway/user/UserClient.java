@@ -1,47 +1,61 @@
 package ru.practicum.shareit.gateway.user;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.gateway.client.BaseClient;
+import ru.practicum.shareit.gateway.client.GatewayResponseCacheFactory;
+import ru.practicum.shareit.gateway.client.UpstreamGuardFactory;
 import ru.practicum.shareit.gateway.user.dto.CreateUserDto;
 
+import java.io.InputStream;
+import java.time.Duration;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    private final Duration bulkTimeout;
+
+    public UserClient(@Value("${shareit-server.url}") String serverUrl,
+                      @Value("${shareit-server.bulk-timeout}") Duration bulkTimeout,
+                      WebClient.Builder builder,
+                      UpstreamGuardFactory upstreamGuardFactory,
+                      GatewayResponseCacheFactory responseCacheFactory) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build(),
+                upstreamGuardFactory.create(API_PREFIX),
+                upstreamGuardFactory.createStreaming(API_PREFIX),
+                responseCacheFactory.create("gateway" + API_PREFIX));
+        this.bulkTimeout = bulkTimeout;
     }
 
-    public ResponseEntity<Object> updateUser(long userId, CreateUserDto dto) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> updateUser(long userId, CreateUserDto dto) {
         String path = String.format("/%d", userId);
-        return patch(path, dto);
+        return evictingCached(path, patch(path, dto));
     }
 
-    public ResponseEntity<Object> deleteById(long userId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> deleteById(long userId) {
         String path = String.format("/%d", userId);
-        return delete(path);
+        return evictingCached(path, delete(path));
     }
 
-    public ResponseEntity<Object> createUser(CreateUserDto dto) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> createUser(CreateUserDto dto) {
         return post("", dto);
     }
 
-    public ResponseEntity<Object> getUserById(long userId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> importUsers(InputStream body) {
+        return postStream("/bulk", null, body, bulkTimeout);
+    }
+
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getUserById(long userId) {
         String path = String.format("/%d", userId);
-        return get(path);
+        return getCached(path);
     }
 
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getAll() {
         return get("");
     }
 }
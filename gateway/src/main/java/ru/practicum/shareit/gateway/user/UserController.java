@@ -2,12 +2,16 @@ package ru.practicum.shareit.gateway.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.gateway.user.dto.CreateUserDto;
 
 import javax.validation.Valid;
+import java.io.InputStream;
 
 @RestController
 @RequestMapping(path = "/users")
@@ -19,8 +23,8 @@ public class UserController {
     private final UserClient userClient;
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable("userId") long userId,
-                                             @RequestBody CreateUserDto dto) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> updateUser(@PathVariable("userId") long userId,
+                                                                @RequestBody CreateUserDto dto) {
         log.info("Received PATCH request to update user with id={}. User to update={}",
                 userId,
                 dto);
@@ -28,25 +32,34 @@ public class UserController {
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteById(@PathVariable("userId") long userId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> deleteById(@PathVariable("userId") long userId) {
         log.info("Received request to DELETE user by id={}", userId);
         return userClient.deleteById(userId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@RequestBody @Valid CreateUserDto dto) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> createUser(@RequestBody @Valid CreateUserDto dto) {
         log.info("Received request to POST user={}", dto);
         return userClient.createUser(dto);
     }
 
+    /**
+     * NDJSON bulk creation. Lines are validated by the server, which reports the outcome of each line.
+     */
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<ResponseBodyEmitter>> importUsers(InputStream body) {
+        log.info("Received request to POST users in bulk.");
+        return userClient.importUsers(body);
+    }
+
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable("userId") long userId) {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getUserById(@PathVariable("userId") long userId) {
         log.info("Received request to GET user by id={}", userId);
         return userClient.getUserById(userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<ResponseBodyEmitter>> getAll() {
         log.info("Received request to GET all users.");
         return userClient.getAll();
     }
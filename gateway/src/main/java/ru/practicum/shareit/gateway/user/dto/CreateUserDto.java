@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 import javax.validation.constraints.Email;
+import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
 @AllArgsConstructor
@@ -12,6 +13,7 @@ import javax.validation.constraints.NotNull;
 @Getter
 public class CreateUserDto {
     private Long id;
+    @NotBlank
     private String name;
     @Email
     @NotNull
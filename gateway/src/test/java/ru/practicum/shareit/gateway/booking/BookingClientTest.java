@@ -0,0 +1,82 @@
+package ru.practicum.shareit.gateway.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.gateway.booking.dto.BookingState;
+import ru.practicum.shareit.gateway.client.ShareItServerClientProperties;
+import ru.practicum.shareit.gateway.client.UpstreamGuardFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingClientTest {
+    private static final long USER_ID = 1L;
+
+    private final AtomicReference<ClientRequest> sentRequest = new AtomicReference<>();
+
+    @Test
+    void getBookings_relaysNextCursorHeader() {
+        BookingClient client = client(request -> ClientResponse.create(HttpStatus.OK)
+                .header("Content-Type", "application/json")
+                .header("X-Next-Cursor", "next-page")
+                .body("[]")
+                .build());
+
+        ResponseEntity<ResponseBodyEmitter> response = client
+                .getBookings(USER_ID, BookingState.ALL, 0, 10, "this-page")
+                .block();
+
+        assertThat(response).isNotNull();
+        assertThat(response.getHeaders().getFirst("X-Next-Cursor")).isEqualTo("next-page");
+        assertThat(sentRequest.get().url().getQuery()).contains("cursor=this-page");
+    }
+
+    @Test
+    void exportBookings_releasesChunksOnceRelayed() throws InterruptedException {
+        NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+        List<DataBuffer> chunks = List.of(
+                bufferFactory.wrap("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8)),
+                bufferFactory.wrap("{\"id\":2}\n".getBytes(StandardCharsets.UTF_8)));
+        BookingClient client = client(request -> ClientResponse.create(HttpStatus.OK)
+                .header("Content-Type", "application/x-ndjson")
+                .body(Flux.fromIterable(chunks))
+                .build());
+
+        ResponseEntity<ResponseBodyEmitter> response = client.exportBookings(USER_ID).block();
+
+        assertThat(response).isNotNull();
+        for (int i = 0; i < 50 && chunks.stream().anyMatch(BookingClientTest::isRetained); i++) {
+            Thread.sleep(20);
+        }
+        assertThat(chunks).noneMatch(BookingClientTest::isRetained);
+    }
+
+    private BookingClient client(Function<ClientRequest, ClientResponse> server) {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            sentRequest.set(request);
+            return Mono.just(server.apply(request));
+        });
+        return new BookingClient("http://server", Duration.ofMinutes(1), builder,
+                new UpstreamGuardFactory(new ShareItServerClientProperties(), new SimpleMeterRegistry()));
+    }
+
+    private static boolean isRetained(DataBuffer chunk) {
+        return NettyDataBufferFactory.toByteBuf(chunk).refCnt() > 0;
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.gateway.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import ru.practicum.shareit.gateway.error.UpstreamUnavailableException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UpstreamGuardTest {
+
+    CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("items");
+    Bulkhead bulkhead = Bulkhead.of("items", BulkheadConfig.custom()
+            .maxConcurrentCalls(1)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+    AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(10, 1, 10, 0.9, Duration.ofSeconds(1));
+    UpstreamGuard guard = new UpstreamGuard("items", circuitBreaker, bulkhead, limiter,
+            Duration.ofSeconds(10), new SimpleMeterRegistry());
+
+    @Test
+    void protectStream_recordsOutcomeAtHeadersAndHoldsBulkheadUntilBodyCompletes() {
+        Sinks.Many<String> body = Sinks.many().unicast().onBackpressureBuffer();
+        ResponseEntity<Flux<String>> response = guard.protectStream(Mono.just(ResponseEntity.ok(body.asFlux())))
+                .block();
+        List<String> received = new ArrayList<>();
+        response.getBody().subscribe(received::add);
+
+        body.tryEmitNext("chunk");
+
+        assertThat(received).containsExactly("chunk");
+        assertThat(circuitBreaker.getMetrics().getNumberOfSuccessfulCalls()).isEqualTo(1);
+        assertThat(limiter.getInFlight()).isZero();
+        assertThatThrownBy(() -> guard.protect(Mono.just(ResponseEntity.ok("second"))).block())
+                .isInstanceOf(UpstreamUnavailableException.class);
+
+        body.tryEmitComplete();
+
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+        assertThat(circuitBreaker.getMetrics().getNumberOfBufferedCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void protectStream_whenBodyFails_releasesBulkheadWithoutFailure() {
+        ResponseEntity<Flux<String>> response = guard.protectStream(
+                Mono.just(ResponseEntity.ok(Flux.<String>error(new IllegalStateException("connection reset")))))
+                .block();
+
+        assertThatThrownBy(() -> response.getBody().blockLast()).isInstanceOf(IllegalStateException.class);
+
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+        assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isZero();
+    }
+
+    @Test
+    void protectStream_whenBodyIsCancelled_releasesBulkhead() {
+        ResponseEntity<Flux<String>> response = guard.protectStream(
+                Mono.just(ResponseEntity.ok(Flux.<String>never()))).block();
+
+        response.getBody().subscribe().dispose();
+
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void protectStream_whenCancelledBeforeHeaders_recordsNoOutcome() {
+        guard.protectStream(Mono.<ResponseEntity<Flux<String>>>never()).subscribe().dispose();
+
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+        assertThat(circuitBreaker.getMetrics().getNumberOfBufferedCalls()).isZero();
+    }
+
+    @Test
+    void protectStream_when5xx_recordsFailureAtHeaders() {
+        ResponseEntity<Flux<String>> response = guard.protectStream(Mono.just(
+                ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Flux.just("error")))).block();
+
+        assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isEqualTo(1);
+
+        response.getBody().blockLast();
+
+        assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isEqualTo(1);
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void streamingGuard_doesNotTakeCapacityOfRoute() {
+        ShareItServerClientProperties properties = new ShareItServerClientProperties();
+        properties.getBulkhead().setMaxConcurrentCalls(1);
+        properties.getBulkhead().setMaxConcurrentStreams(1);
+        UpstreamGuardFactory factory = new UpstreamGuardFactory(properties, new SimpleMeterRegistry());
+        UpstreamGuard routeGuard = factory.create("/bookings");
+        UpstreamGuard streamGuard = factory.createStreaming("/bookings");
+        streamGuard.protectStream(Mono.just(ResponseEntity.ok(Flux.<String>never()))).block()
+                .getBody().subscribe();
+
+        assertThat(routeGuard.protect(Mono.just(ResponseEntity.ok("listing"))).block().getBody())
+                .isEqualTo("listing");
+        assertThatThrownBy(() -> streamGuard.protectStream(Mono.just(ResponseEntity.ok(Flux.just("second"))))
+                .block())
+                .isInstanceOf(UpstreamUnavailableException.class);
+    }
+}
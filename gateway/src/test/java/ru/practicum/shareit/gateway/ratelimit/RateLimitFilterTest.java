@@ -0,0 +1,109 @@
+package ru.practicum.shareit.gateway.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    static final int BURST = 3;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    RateLimitFilter filter = filter(true);
+
+    @Test
+    void userOverBurst_isRejectedWithRetryAfter() throws Exception {
+        for (int i = 0; i < BURST; i++) {
+            assertThat(send("/items/1", "1", "10.0.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+
+        MockHttpServletResponse response = send("/items/1", "1", "10.0.0.1");
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("10");
+        assertThat(meterRegistry.counter("gateway.rate-limit.rejected", "group", "default").count()).isEqualTo(1);
+    }
+
+    @Test
+    void users_haveSeparateBuckets() throws Exception {
+        exhaust("/items/1", "1", "10.0.0.1");
+
+        assertThat(send("/items/1", "2", "10.0.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    void requestWithoutUser_isLimitedByRemoteAddress() throws Exception {
+        exhaust("/items/search", null, "10.0.0.1");
+
+        assertThat(send("/items/search", null, "10.0.0.1").getStatus())
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(send("/items/search", "not-a-number", "10.0.0.1").getStatus())
+                .isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(send("/items/search", null, "10.0.0.2").getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    void groups_haveSeparateBuckets() throws Exception {
+        exhaust("/items/search", "1", "10.0.0.1");
+
+        assertThat(send("/items/1", "1", "10.0.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    void pathOutsideGroups_isNotLimited() throws Exception {
+        exhaust("/items/1", "1", "10.0.0.1");
+
+        assertThat(send("/actuator/health", "1", "10.0.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    void disabled_limitsNothing() throws Exception {
+        filter = filter(false);
+
+        exhaust("/items/1", "1", "10.0.0.1");
+
+        assertThat(send("/items/1", "1", "10.0.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    private void exhaust(String path, String userId, String address) throws Exception {
+        for (int i = 0; i < BURST; i++) {
+            assertThat(send(path, userId, address).getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+    }
+
+    private MockHttpServletResponse send(String path, String userId, String address) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(address);
+        if (userId != null) {
+            request.addHeader("X-Sharer-User-Id", userId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private RateLimitFilter filter(boolean enabled) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setEnabled(enabled);
+        properties.getGroups().put("search", group(List.of("/items/search")));
+        properties.getGroups().put("default", group(List.of("/items/**", "/users/**")));
+        return new RateLimitFilter(properties, meterRegistry, new ObjectMapper());
+    }
+
+    private static RateLimitProperties.Group group(List<String> paths) {
+        RateLimitProperties.Group group = new RateLimitProperties.Group();
+        group.setPaths(paths);
+        group.setRequestsPerSecond(0.1);
+        group.setBurst(BURST);
+        return group;
+    }
+}
@@ -3,11 +3,16 @@ package ru.practicum.shareit.booking.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingResponse;
 import ru.practicum.shareit.booking.dto.BookingStateDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.bulk.NdjsonExporter;
 
 import java.util.List;
 
@@ -18,7 +23,9 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final NdjsonExporter ndjsonExporter;
     private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -54,32 +61,80 @@ public class BookingController {
         return bookingService.getBookingById(bookingId, userId);
     }
 
+    /**
+     * Without cursor parameter pages by offset. With cursor parameter (empty for the first page)
+     * pages by keyset and returns the token of the next page in X-Next-Cursor header.
+     */
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<BookingResponse> getBookingsOfUser(@RequestHeader(USER_HEADER) Long bookerId,
-                                                   @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
-                                                   @RequestParam(value = "from", defaultValue = "0", required = false) int from,
-                                                   @RequestParam(value = "size", defaultValue = "10", required = false) int size) {
+    public ResponseEntity<List<BookingResponse>> getBookingsOfUser(@RequestHeader(USER_HEADER) Long bookerId,
+                                                                   @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
+                                                                   @RequestParam(value = "from", defaultValue = "0", required = false) int from,
+                                                                   @RequestParam(value = "size", defaultValue = "10", required = false) int size,
+                                                                   @RequestParam(value = "cursor", required = false) String cursor) {
         log.info(
                 "Received request to GET all bookings of user with id={} in state={}",
                 bookerId,
                 state
         );
-        return bookingService.getAllBookingsOfUser(bookerId, BookingStateDto.fromString(state), from, size);
+        if (cursor == null) {
+            return ResponseEntity.ok(
+                    bookingService.getAllBookingsOfUser(bookerId, BookingStateDto.fromString(state), from, size)
+            );
+        }
+        return toResponse(bookingService.getBookingsOfUserPage(bookerId, BookingStateDto.fromString(state), cursor, size));
     }
 
     @GetMapping("/owner")
-    @ResponseStatus(HttpStatus.OK)
-    public List<BookingResponse> getBookingsOfOwner(@RequestHeader(USER_HEADER) Long ownerId,
-                                                    @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
-                                                    @RequestParam(value = "from", defaultValue = "0", required = false) int from,
-                                                    @RequestParam(value = "size", defaultValue = "10", required = false) int size) {
+    public ResponseEntity<List<BookingResponse>> getBookingsOfOwner(@RequestHeader(USER_HEADER) Long ownerId,
+                                                                    @RequestParam(value = "state", required = false, defaultValue = "ALL") String state,
+                                                                    @RequestParam(value = "from", defaultValue = "0", required = false) int from,
+                                                                    @RequestParam(value = "size", defaultValue = "10", required = false) int size,
+                                                                    @RequestParam(value = "cursor", required = false) String cursor) {
         log.info(
                 "Received request to GET all bookings of owner with id={}, in state={}",
                 ownerId,
                 state
         );
-        return bookingService.getAllBookingsOfOwner(ownerId, BookingStateDto.fromString(state), from, size);
+        if (cursor == null) {
+            return ResponseEntity.ok(
+                    bookingService.getAllBookingsOfOwner(ownerId, BookingStateDto.fromString(state), from, size)
+            );
+        }
+        return toResponse(bookingService.getBookingsOfOwnerPage(ownerId, BookingStateDto.fromString(state), cursor, size));
+    }
+
+    /**
+     * Whole booking history of the user as NDJSON, newest first, streamed in one response.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsOfUser(@RequestHeader(USER_HEADER) Long bookerId) {
+        log.info("Received request to export all bookings of user with id={}", bookerId);
+        bookingService.checkUserExists(bookerId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjsonExporter.export(BookingResponse.class,
+                        action -> bookingService.forEachBookingOfUser(bookerId, action)));
+    }
+
+    /**
+     * Whole booking history of the owner's items as NDJSON, newest first, streamed in one response.
+     */
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsOfOwner(@RequestHeader(USER_HEADER) Long ownerId) {
+        log.info("Received request to export all bookings of owner with id={}", ownerId);
+        bookingService.checkUserExists(ownerId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjsonExporter.export(BookingResponse.class,
+                        action -> bookingService.forEachBookingOfOwner(ownerId, action)));
+    }
+
+    private ResponseEntity<List<BookingResponse>> toResponse(BookingPage page) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            builder.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return builder.body(page.getBookings());
     }
 
 }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BookingPage {
+    private List<BookingResponse> bookings;
+    /**
+     * Token of the next page, {@literal null} if this page is the last one.
+     */
+    private String nextCursor;
+}
@@ -13,12 +13,14 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 import ru.practicum.shareit.util.Mapper;
 
 @Component
 @RequiredArgsConstructor
 public class BookingMapper implements Mapper<Booking, BookingRequest, BookingResponse> {
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRepository itemRepository;
 
     @Override
@@ -40,11 +42,11 @@ public class BookingMapper implements Mapper<Booking, BookingRequest, BookingRes
 
     @Override
     public Booking mapToDomain(BookingRequest dto) {
-        User booker = userRepository.findById(dto.getBookerId())
-                .orElseThrow(() -> {
-                    String msg = String.format("User with ID=%d not found.", dto.getBookerId());
-                    return new ServiceException(HttpStatus.NOT_FOUND.value(), msg);
-                });
+        if (!userExistenceCache.exists(dto.getBookerId())) {
+            String msg = String.format("User with ID=%d not found.", dto.getBookerId());
+            throw new ServiceException(HttpStatus.NOT_FOUND.value(), msg);
+        }
+        User booker = userRepository.getReferenceById(dto.getBookerId());
         Item item = itemRepository.findByIdOwnerFetched(dto.getItemId())
                 .orElseThrow(() -> {
                    String msg = String.format("Item with ID=%d not found.", dto.getItemId());
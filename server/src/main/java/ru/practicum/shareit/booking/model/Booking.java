@@ -6,6 +6,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.util.DateProcessor;
+import ru.practicum.shareit.util.SequenceIds;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -21,7 +22,8 @@ import java.time.LocalDateTime;
 @Accessors(chain = true)
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = SequenceIds.ALLOCATION_SIZE)
     private Long id;
     @Column(name = "start_date", nullable = false)
     @DateTimeFormat(pattern = DateProcessor.DATE_FORMAT)
@@ -40,6 +42,19 @@ public class Booking {
     @Column(name = "status")
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
+    /**
+     * Copy of the owner of the booked item, lets owner listings be served
+     * by a single index without joining items.
+     */
+    @Column(name = "owner_id", nullable = false, updatable = false)
+    private Long ownerId;
+
+    @PrePersist
+    private void copyItemOwner() {
+        if (ownerId == null) {
+            ownerId = item.getOwner().getId();
+        }
+    }
 
     @Override
     public boolean equals(Object o) {
@@ -3,34 +3,109 @@ package ru.practicum.shareit.booking.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingIntervalView;
+import ru.practicum.shareit.booking.model.BookingShortView;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    /**
+     * Rows fetched from the database per round trip by the export streams.
+     */
+    int EXPORT_FETCH_SIZE = 500;
 
     @Query("select b from Booking b join fetch b.booker bkr join fetch b.item i where b.id =:bookingId")
     Optional<Booking> findBookingByIdItemFetched(@Param("bookingId") Long bookingId);
 
+    @Query("select b.id as id, b.booker.id as bookerId, b.item.id as itemId, b.start as start from Booking b " +
+            "where b.item.id = :itemId and b.status = :status and b.start < :now " +
+            "order by b.start desc")
+    List<BookingShortView> findLastBookingsOfItem(@Param("itemId") Long itemId,
+                                                  @Param("status") BookingStatus status,
+                                                  @Param("now") LocalDateTime now,
+                                                  Pageable pageable);
+
+    @Query("select b.id as id, b.booker.id as bookerId, b.item.id as itemId, b.start as start from Booking b " +
+            "where b.item.id = :itemId and b.status in :statuses and b.start > :now " +
+            "order by b.start asc")
+    List<BookingShortView> findNextBookingsOfItem(@Param("itemId") Long itemId,
+                                                  @Param("statuses") Collection<BookingStatus> statuses,
+                                                  @Param("now") LocalDateTime now,
+                                                  Pageable pageable);
+
+    /**
+     * Latest approved booking started before now for each of the items. Several rows
+     * are returned for an item only if its bookings share the same start.
+     */
+    @Query("select b.id as id, b.booker.id as bookerId, b.item.id as itemId, b.start as start from Booking b " +
+            "where b.item.id in :itemIds and b.status = :status and b.start = " +
+            "(select max(l.start) from Booking l " +
+            "where l.item.id = b.item.id and l.status = :status and l.start < :now)")
+    List<BookingShortView> findLastBookingsOfItems(@Param("itemIds") Collection<Long> itemIds,
+                                                   @Param("status") BookingStatus status,
+                                                   @Param("now") LocalDateTime now);
+
+    /**
+     * Earliest booking with one of the statuses starting after now for each of the items.
+     */
+    @Query("select b.id as id, b.booker.id as bookerId, b.item.id as itemId, b.start as start from Booking b " +
+            "where b.item.id in :itemIds and b.status in :statuses and b.start = " +
+            "(select min(n.start) from Booking n " +
+            "where n.item.id = b.item.id and n.status in :statuses and n.start > :now)")
+    List<BookingShortView> findNextBookingsOfItems(@Param("itemIds") Collection<Long> itemIds,
+                                                   @Param("statuses") Collection<BookingStatus> statuses,
+                                                   @Param("now") LocalDateTime now);
+
+    @Query("select b.id as id, b.start as start, b.end as end from Booking b " +
+            "where b.item.id = :itemId and b.status = :status and b.end > :after")
+    List<BookingIntervalView> findIntervalsByItemIdAndStatusEndingAfter(@Param("itemId") Long itemId,
+                                                                        @Param("status") BookingStatus status,
+                                                                        @Param("after") LocalDateTime after);
+
+    @Query("select case when count(b) > 0 then true else false end from Booking b " +
+            "where b.item.id = :itemId and b.status = :status " +
+            "and b.start < :end and b.end > :start")
+    boolean existsOverlapping(@Param("itemId") Long itemId,
+                              @Param("status") BookingStatus status,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end);
+
+    @Query("select case when count(b) > 0 then true else false end from Booking b " +
+            "where b.item.id = :itemId and b.status = :status and b.id <> :bookingId " +
+            "and b.start < :end and b.end > :start")
+    boolean existsOverlapping(@Param("itemId") Long itemId,
+                              @Param("status") BookingStatus status,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end,
+                              @Param("bookingId") Long bookingId);
+
     @Query("select b from Booking b join fetch b.item i " +
             "join fetch b.booker bkr where bkr.id = :bookerId " +
-            "order by b.start desc")
+            "order by b.start desc, b.id desc")
     List<Booking> findAllByBookerIdOrderByStartDesc(@Param("bookerId") Long bookerId, Pageable pageable);
 
     @Query("select b from Booking b join fetch b.item i " +
             "join fetch b.booker bkr where bkr.id = :bookerId and " +
-            "b.status = :status order by b.start desc")
+            "b.status = :status order by b.start desc, b.id desc")
     List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(@Param("bookerId") Long bookerId,
                                                              @Param("status") BookingStatus status,
                                                              Pageable pageable);
 
     @Query("select b from Booking b join fetch b.item i " +
             "join fetch b.booker bkr where bkr.id = :bookerId and " +
-            "b.start < :before and b.end > :after order by b.start desc")
+            "b.start < :before and b.end > :after order by b.start desc, b.id desc")
     List<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(@Param("bookerId") Long bookerId,
                                                                              @Param("before") LocalDateTime before,
                                                                              @Param("after") LocalDateTime after,
@@ -38,7 +113,7 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     @Query("select b from Booking b join fetch b.item i " +
             "join fetch b.booker bkr where bkr.id = :bookerId and " +
-            "b.end < :now order by b.start desc")
+            "b.end < :now order by b.start desc, b.id desc")
     List<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(@Param("bookerId") Long bookerId,
                                                                 @Param("now") LocalDateTime now,
                                                                 Pageable pageable);
@@ -46,44 +121,182 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     @Query("select b from Booking b join fetch b.item i " +
             "join fetch b.booker bkr where bkr.id = :bookerId and " +
-            "b.start > :now order by b.start desc")
+            "b.start > :now order by b.start desc, b.id desc")
     List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(@Param("bookerId") Long bookerId,
                                                                  @Param("now") LocalDateTime now,
                                                                  Pageable pageable);
 
     @Query("select b from Booking b join fetch b.item i " +
-            "join fetch b.booker bkr where i.owner.id = :ownerId " +
-            "order by b.start desc")
-    List<Booking> findAllByItemOwnerIdOrderByStartDesc(@Param("ownerId") Long ownerId, Pageable pageable);
+            "join fetch b.booker bkr where b.ownerId = :ownerId " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findAllByOwnerIdOrderByStartDesc(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @Query("select b from Booking b join fetch b.item i " +
+            "join fetch b.booker bkr where b.ownerId = :ownerId " +
+            "and b.status = :status order by b.start desc, b.id desc")
+    List<Booking> findAllByOwnerIdAndStatusOrderByStartDesc(@Param("ownerId") Long ownerId,
+                                                            @Param("status") BookingStatus status,
+                                                            Pageable pageable);
+
+    @Query("select b from Booking b join fetch b.item i " +
+            "join fetch b.booker bkr where b.ownerId = :ownerId " +
+            "and b.start < :before and b.end > :after order by b.start desc, b.id desc")
+    List<Booking> findAllByOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(@Param("ownerId") Long ownerId,
+                                                                            @Param("before") LocalDateTime before,
+                                                                            @Param("after") LocalDateTime after,
+                                                                            Pageable pageable);
 
     @Query("select b from Booking b join fetch b.item i " +
-            "join fetch b.booker bkr where i.owner.id = :ownerId " +
-            "and b.status = :status order by b.start desc")
-    List<Booking> findAllByItemOwnerIdAndStatusOrderByStartDesc(@Param("ownerId") Long ownerId,
-                                                                @Param("status") BookingStatus status,
+            "join fetch b.booker bkr where b.ownerId = :ownerId " +
+            "and b.end < :now order by b.start desc, b.id desc")
+    List<Booking> findAllByOwnerIdAndEndBeforeOrderByStartDesc(@Param("ownerId") Long ownerId,
+                                                               @Param("now") LocalDateTime now,
+                                                               Pageable pageable);
+
+
+    @Query("select b from Booking b join fetch b.item i " +
+            "join fetch b.booker bkr where b.ownerId = :ownerId " +
+            "and b.start > :now order by b.start desc, b.id desc")
+    List<Booking> findAllByOwnerIdAndStartAfterOrderByStartDesc(@Param("ownerId") Long ownerId,
+                                                                @Param("now") LocalDateTime now,
                                                                 Pageable pageable);
 
+    /*
+     * Keyset (seek) variants of the listing queries above. Instead of skipping "from" rows
+     * they continue right after the (start, id) pair of the last booking of the previous page,
+     * so the cost of a page does not depend on how deep the client has paged.
+     * Pageable is expected to have zero offset and is used only as a limit.
+     */
+
+    @Query("select b from Booking b join fetch b.item i " +
+            "join fetch b.booker bkr where bkr.id = :bookerId " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findAllByBookerIdOrderByStartDescAfterCursor(@Param("bookerId") Long bookerId,
+                                                               @Param("cursorStart") LocalDateTime cursorStart,
+                                                               @Param("cursorId") Long cursorId,
+                                                               Pageable pageable);
+
+    @Query("select b from Booking b join fetch b.item i " +
+            "join fetch b.booker bkr where bkr.id = :bookerId and b.status = :status " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findAllByBookerIdAndStatusOrderByStartDescAfterCursor(@Param("bookerId") Long bookerId,
+                                                                        @Param("status") BookingStatus status,
+                                                                        @Param("cursorStart") LocalDateTime cursorStart,
+                                                                        @Param("cursorId") Long cursorId,
+                                                                        Pageable pageable);
+
     @Query("select b from Booking b join fetch b.item i " +
-            "join fetch b.booker bkr where i.owner.id = :ownerId " +
-            "and b.start < :before and b.end > :after order by b.start desc")
-    List<Booking> findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(@Param("ownerId") Long ownerId,
-                                                                                @Param("before") LocalDateTime before,
-                                                                                @Param("after") LocalDateTime after,
-                                                                                Pageable pageable);
+            "join fetch b.booker bkr where bkr.id = :bookerId and b.start < :before and b.end > :after " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDescAfterCursor(
+            @Param("bookerId") Long bookerId,
+            @Param("before") LocalDateTime before,
+            @Param("after") LocalDateTime after,
+            @Param("cursorStart") LocalDateTime cursorStart,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
 
     @Query("select b from Booking b join fetch b.item i " +
-            "join fetch b.booker bkr where i.owner.id = :ownerId " +
-            "and b.end < :now order by b.start desc")
-    List<Booking> findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(@Param("ownerId") Long ownerId,
-                                                                   @Param("now") LocalDateTime now,
-                                                                   Pageable pageable);
+            "join fetch b.booker bkr where bkr.id = :bookerId and b.end < :now " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findAllByBookerIdAndEndBeforeOrderByStartDescAfterCursor(
+            @Param("bookerId") Long bookerId,
+            @Param("now") LocalDateTime now,
+            @Param("cursorStart") LocalDateTime cursorStart,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
 
+    @Query("select b from Booking b join fetch b.item i " +
+            "join fetch b.booker bkr where bkr.id = :bookerId and b.start > :now " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findAllByBookerIdAndStartAfterOrderByStartDescAfterCursor(
+            @Param("bookerId") Long bookerId,
+            @Param("now") LocalDateTime now,
+            @Param("cursorStart") LocalDateTime cursorStart,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
 
     @Query("select b from Booking b join fetch b.item i " +
-            "join fetch b.booker bkr where i.owner.id = :ownerId " +
-            "and b.start > :now order by b.start desc")
-    List<Booking> findAllByItemOwnerIdAndStartAfterOrderByStartDesc(@Param("ownerId") Long ownerId,
-                                                                    @Param("now") LocalDateTime now,
-                                                                    Pageable pageable);
+            "join fetch b.booker bkr where b.ownerId = :ownerId " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findAllByOwnerIdOrderByStartDescAfterCursor(@Param("ownerId") Long ownerId,
+                                                              @Param("cursorStart") LocalDateTime cursorStart,
+                                                              @Param("cursorId") Long cursorId,
+                                                              Pageable pageable);
 
+    @Query("select b from Booking b join fetch b.item i " +
+            "join fetch b.booker bkr where b.ownerId = :ownerId and b.status = :status " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findAllByOwnerIdAndStatusOrderByStartDescAfterCursor(@Param("ownerId") Long ownerId,
+                                                                       @Param("status") BookingStatus status,
+                                                                       @Param("cursorStart") LocalDateTime cursorStart,
+                                                                       @Param("cursorId") Long cursorId,
+                                                                       Pageable pageable);
+
+    @Query("select b from Booking b join fetch b.item i " +
+            "join fetch b.booker bkr where b.ownerId = :ownerId and b.start < :before and b.end > :after " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findAllByOwnerIdAndStartBeforeAndEndAfterOrderByStartDescAfterCursor(
+            @Param("ownerId") Long ownerId,
+            @Param("before") LocalDateTime before,
+            @Param("after") LocalDateTime after,
+            @Param("cursorStart") LocalDateTime cursorStart,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    @Query("select b from Booking b join fetch b.item i " +
+            "join fetch b.booker bkr where b.ownerId = :ownerId and b.end < :now " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findAllByOwnerIdAndEndBeforeOrderByStartDescAfterCursor(
+            @Param("ownerId") Long ownerId,
+            @Param("now") LocalDateTime now,
+            @Param("cursorStart") LocalDateTime cursorStart,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    @Query("select b from Booking b join fetch b.item i " +
+            "join fetch b.booker bkr where b.ownerId = :ownerId and b.start > :now " +
+            "and (b.start < :cursorStart or (b.start = :cursorStart and b.id < :cursorId)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findAllByOwnerIdAndStartAfterOrderByStartDescAfterCursor(
+            @Param("ownerId") Long ownerId,
+            @Param("now") LocalDateTime now,
+            @Param("cursorStart") LocalDateTime cursorStart,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    /**
+     * Whole booking history of the booker, newest first, read through a database cursor.
+     * Must be consumed in a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select b from Booking b join fetch b.item i " +
+            "join fetch b.booker bkr where bkr.id = :bookerId " +
+            "order by b.start desc, b.id desc")
+    Stream<Booking> streamAllByBookerId(@Param("bookerId") Long bookerId);
+
+    /**
+     * Whole booking history of the owner, newest first, read through a database cursor.
+     * Must be consumed in a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select b from Booking b join fetch b.item i " +
+            "join fetch b.booker bkr where b.ownerId = :ownerId " +
+            "order by b.start desc, b.id desc")
+    Stream<Booking> streamAllByOwnerId(@Param("ownerId") Long ownerId);
 }
@@ -16,4 +16,8 @@ public interface BookingDataValidator {
 
     void throwIfBookingAlreadyApproved(Long ownerId, Booking booking);
 
+    void throwIfIntervalNotFree(Booking booking);
+
+    void throwIfIntervalNotFreeLocked(Booking booking);
+
 }
@@ -4,8 +4,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.error.ServiceException;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
 import static ru.practicum.shareit.booking.model.BookingStatus.REJECTED;
@@ -14,7 +16,10 @@ import static ru.practicum.shareit.booking.model.BookingStatus.REJECTED;
 @RequiredArgsConstructor
 public class BookingDataValidatorImpl implements BookingDataValidator {
 
-    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
 
     @Override
     public void throwIfNotOwnerOfBookedItem(Long ownerId, Long bookingId, Booking booking) {
@@ -35,7 +40,7 @@ public class BookingDataValidatorImpl implements BookingDataValidator {
 
     @Override
     public void throwIfUserNotExists(Long bookerId) {
-        if (!userRepository.existsById(bookerId)) {
+        if (!userExistenceCache.exists(bookerId)) {
             String msg = String.format("User with ID=%d not found.", bookerId);
             throw new ServiceException(HttpStatus.NOT_FOUND.value(), msg);
         }
@@ -67,4 +72,39 @@ public class BookingDataValidatorImpl implements BookingDataValidator {
             throw new ServiceException(HttpStatus.BAD_REQUEST.value(), msg);
         }
     }
+
+    /**
+     * Checks the interval against the in-memory index, so a free interval costs no database round trip.
+     * The index may still hold a booking rejected on another instance, so an overlap it reports
+     * is confirmed in the database before the booking is refused.
+     */
+    @Override
+    public void throwIfIntervalNotFree(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        if (!bookingIntervalIndex.isFree(itemId, booking.getStart(), booking.getEnd())
+                && bookingRepository.existsOverlapping(itemId, APPROVED, booking.getStart(), booking.getEnd())) {
+            throwIntervalNotFree(booking);
+        }
+    }
+
+    /**
+     * Authoritative check for approval: locks the item row so that approvals of bookings
+     * of the same item are serialized across all server instances, then looks for
+     * APPROVED bookings intersecting the interval in the database. The in-memory index is not
+     * consulted, it may still hold a booking rejected on another instance.
+     */
+    @Override
+    public void throwIfIntervalNotFreeLocked(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        itemRepository.lockById(itemId);
+        if (bookingRepository.existsOverlapping(itemId, APPROVED, booking.getStart(), booking.getEnd(), booking.getId())) {
+            throwIntervalNotFree(booking);
+        }
+    }
+
+    private void throwIntervalNotFree(Booking booking) {
+        String msg = String.format("Cannot book item with ID=%d from %s to %s because it is already " +
+                "booked for this time.", booking.getItem().getId(), booking.getStart(), booking.getEnd());
+        throw new ServiceException(HttpStatus.CONFLICT.value(), msg);
+    }
 }
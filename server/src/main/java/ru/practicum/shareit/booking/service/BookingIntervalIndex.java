@@ -0,0 +1,31 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * In-memory index of APPROVED booking intervals per item.
+ * Intervals of an item are loaded lazily from the database on first access
+ * and are kept current by approve / reject operations of this node. Changes made by other nodes
+ * are only seen once the intervals are reloaded, so the index serves as a fast pre-check and
+ * approvals are decided by the database.
+ */
+public interface BookingIntervalIndex {
+
+    /**
+     * Checks whether interval [start, end) of item does not intersect any known APPROVED booking.
+     */
+    boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Registers APPROVED booking if the intervals of its item are loaded, otherwise they will include it
+     * once loaded. Takes effect after the current transaction commits.
+     */
+    void addApproved(Booking booking);
+
+    /**
+     * Unregisters booking that is no longer APPROVED. Takes effect after the current transaction commits.
+     */
+    void removeApproved(Booking booking);
+}
@@ -0,0 +1,148 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingIntervalView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
+import static ru.practicum.shareit.util.TransactionCallbacks.afterCommit;
+
+/**
+ * Intervals of at most {@code shareit.booking-index.maximum-size} items are kept, each for
+ * {@code shareit.booking-index.ttl} after it was loaded, which bounds both the memory taken
+ * and how long approvals and rejections made by other instances go unnoticed.
+ */
+@Slf4j
+@Component
+public class BookingIntervalIndexImpl implements BookingIntervalIndex {
+
+    private final BookingRepository bookingRepository;
+
+    private final Cache<Long, ItemIntervals> itemIdToIntervals;
+
+    @Autowired
+    public BookingIntervalIndexImpl(BookingRepository bookingRepository,
+                                    @Value("${shareit.booking-index.maximum-size:100000}") long maximumSize,
+                                    @Value("${shareit.booking-index.ttl:10m}") Duration ttl) {
+        this(bookingRepository, maximumSize, ttl, Ticker.systemTicker());
+    }
+
+    BookingIntervalIndexImpl(BookingRepository bookingRepository, long maximumSize, Duration ttl, Ticker ticker) {
+        this.bookingRepository = bookingRepository;
+        this.itemIdToIntervals = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public boolean isFree(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return getIntervals(itemId).isFree(start, end);
+    }
+
+    @Override
+    public void addApproved(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Interval interval = new Interval(booking.getId(), booking.getStart(), booking.getEnd());
+        afterCommit(() -> {
+            ItemIntervals intervals = itemIdToIntervals.getIfPresent(itemId);
+            if (intervals != null) {
+                intervals.add(interval);
+            }
+        });
+    }
+
+    @Override
+    public void removeApproved(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Long bookingId = booking.getId();
+        LocalDateTime start = booking.getStart();
+        afterCommit(() -> {
+            ItemIntervals intervals = itemIdToIntervals.getIfPresent(itemId);
+            if (intervals != null) {
+                intervals.remove(bookingId, start);
+            }
+        });
+    }
+
+    /**
+     * Loads outside of {@code computeIfAbsent}, which would hold a lock of the map for the whole query
+     * and pin a virtual thread. Of the intervals loaded concurrently for an item the first one is kept.
+     */
+    private ItemIntervals getIntervals(Long itemId) {
+        ItemIntervals intervals = itemIdToIntervals.getIfPresent(itemId);
+        if (intervals != null) {
+            return intervals;
+        }
+        ItemIntervals loaded = loadIntervals(itemId);
+        intervals = itemIdToIntervals.asMap().putIfAbsent(itemId, loaded);
+        return intervals != null ? intervals : loaded;
+    }
+
+    /**
+     * Bookings that have already ended cannot conflict with new ones,
+     * so only current and future APPROVED bookings are loaded.
+     */
+    private ItemIntervals loadIntervals(Long itemId) {
+        List<BookingIntervalView> views = bookingRepository
+                .findIntervalsByItemIdAndStatusEndingAfter(itemId, APPROVED, LocalDateTime.now());
+        ItemIntervals intervals = new ItemIntervals();
+        for (BookingIntervalView view : views) {
+            intervals.add(new Interval(view.getId(), view.getStart(), view.getEnd()));
+        }
+        return intervals;
+    }
+
+    /**
+     * APPROVED intervals of one item sorted by start. Approved intervals of an item
+     * never intersect, so an interval is free if the closest interval starting before
+     * its end has already ended by its start.
+     */
+    private static class ItemIntervals {
+        private final TreeMap<LocalDateTime, Interval> startToInterval = new TreeMap<>();
+
+        synchronized boolean isFree(LocalDateTime start, LocalDateTime end) {
+            Map.Entry<LocalDateTime, Interval> closest = startToInterval.lowerEntry(end);
+            return closest == null || !closest.getValue().getEnd().isAfter(start);
+        }
+
+        synchronized void add(Interval interval) {
+            Interval previous = startToInterval.put(interval.getStart(), interval);
+            if (previous != null && !previous.getId().equals(interval.getId())) {
+                log.warn("APPROVED bookings with ID={} and ID={} start at the same time.",
+                        previous.getId(), interval.getId());
+                if (previous.getEnd().isAfter(interval.getEnd())) {
+                    startToInterval.put(previous.getStart(), previous);
+                }
+            }
+        }
+
+        synchronized void remove(Long bookingId, LocalDateTime start) {
+            Interval interval = startToInterval.get(start);
+            if (interval != null && interval.getId().equals(bookingId)) {
+                startToInterval.remove(start);
+            }
+        }
+    }
+
+    @lombok.Value
+    private static class Interval {
+        Long id;
+        LocalDateTime start;
+        LocalDateTime end;
+    }
+}
@@ -1,10 +1,12 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingResponse;
 import ru.practicum.shareit.booking.dto.BookingStateDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
 
@@ -17,4 +19,26 @@ public interface BookingService {
     List<BookingResponse> getAllBookingsOfUser(Long bookerId, BookingStateDto state, int from, int size);
 
     List<BookingResponse> getAllBookingsOfOwner(Long ownerId, BookingStateDto state, int from, int size);
+
+    BookingPage getBookingsOfUserPage(Long bookerId, BookingStateDto state, String cursor, int size);
+
+    BookingPage getBookingsOfOwnerPage(Long ownerId, BookingStateDto state, String cursor, int size);
+
+    /**
+     * Throws {@link ru.practicum.shareit.error.ServiceException} if the user doesn't exist,
+     * so that an export is refused before its response is started.
+     */
+    void checkUserExists(Long userId);
+
+    /**
+     * Passes every booking of the booker to the action, newest first. Bookings are read through
+     * a database cursor, so memory use doesn't depend on the size of the history.
+     */
+    void forEachBookingOfUser(Long bookerId, Consumer<BookingResponse> action);
+
+    /**
+     * Passes every booking of the owner's items to the action, newest first. Bookings are read through
+     * a database cursor, so memory use doesn't depend on the size of the history.
+     */
+    void forEachBookingOfOwner(Long ownerId, Consumer<BookingResponse> action);
 }
@@ -4,6 +4,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.ObjectUtils;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingResponse;
 import ru.practicum.shareit.booking.dto.BookingStateDto;
@@ -12,8 +15,12 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.error.ServiceException;
 
+import javax.persistence.EntityManager;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static ru.practicum.shareit.booking.model.BookingStatus.*;
 
@@ -26,6 +33,8 @@ public class BookingServiceImpl implements BookingService {
     private final BookingMapper mapper;
     private final BookingDataValidator bookingDataValidator;
     private final UserBookingsProcessor userBookingsProcessor;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final EntityManager entityManager;
 
     @Override
     public BookingResponse createBooking(BookingRequest dto) {
@@ -33,6 +42,7 @@ public class BookingServiceImpl implements BookingService {
         Booking booking = mapper.mapToDomain(dto);
         bookingDataValidator.throwIfItemNotAvailable(dto.getItemId(), booking);
         bookingDataValidator.throwIfBookerIsItemOwner(dto.getBookerId(), booking);
+        bookingDataValidator.throwIfIntervalNotFree(booking);
         Booking saved = bookingRepository.save(booking);
         return mapper.mapToDto(saved);
     }
@@ -43,10 +53,13 @@ public class BookingServiceImpl implements BookingService {
         bookingDataValidator.throwIfNotOwnerOfBookedItem(ownerId, bookingId, booking);
         if (approved) {
             bookingDataValidator.throwIfBookingAlreadyApproved(ownerId, booking);
+            bookingDataValidator.throwIfIntervalNotFreeLocked(booking);
             booking.setStatus(APPROVED);
+            bookingIntervalIndex.addApproved(booking);
         } else {
             bookingDataValidator.throwIfBookingAlreadyRejected(ownerId, booking);
             booking.setStatus(REJECTED);
+            bookingIntervalIndex.removeApproved(booking);
         }
         bookingRepository.save(booking);
         return mapper.mapToDto(booking);
@@ -83,6 +96,78 @@ public class BookingServiceImpl implements BookingService {
         return convertResponse(bookings);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public BookingPage getBookingsOfUserPage(Long bookerId, BookingStateDto state, String cursor, int size) {
+        bookingDataValidator.throwIfUserNotExists(bookerId);
+        List<Booking> bookings = userBookingsProcessor.getAllBookingsOfUserAfterCursor(
+                false, bookerId, state, decodeCursor(cursor), size);
+        return convertPage(bookings, size);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BookingPage getBookingsOfOwnerPage(Long ownerId, BookingStateDto state, String cursor, int size) {
+        bookingDataValidator.throwIfUserNotExists(ownerId);
+        List<Booking> bookings = userBookingsProcessor.getAllBookingsOfUserAfterCursor(
+                true, ownerId, state, decodeCursor(cursor), size);
+        return convertPage(bookings, size);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void checkUserExists(Long userId) {
+        bookingDataValidator.throwIfUserNotExists(userId);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void forEachBookingOfUser(Long bookerId, Consumer<BookingResponse> action) {
+        bookingDataValidator.throwIfUserNotExists(bookerId);
+        try (Stream<Booking> bookings = bookingRepository.streamAllByBookerId(bookerId)) {
+            forEachDetached(bookings, action);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void forEachBookingOfOwner(Long ownerId, Consumer<BookingResponse> action) {
+        bookingDataValidator.throwIfUserNotExists(ownerId);
+        try (Stream<Booking> bookings = bookingRepository.streamAllByOwnerId(ownerId)) {
+            forEachDetached(bookings, action);
+        }
+    }
+
+    /**
+     * Clears the persistence context after every fetched block, otherwise it would keep
+     * every booking read so far.
+     */
+    private void forEachDetached(Stream<Booking> bookings, Consumer<BookingResponse> action) {
+        Iterator<Booking> iterator = bookings.iterator();
+        int read = 0;
+        while (iterator.hasNext()) {
+            action.accept(mapper.mapToDto(iterator.next()));
+            if (++read % BookingRepository.EXPORT_FETCH_SIZE == 0) {
+                entityManager.clear();
+            }
+        }
+    }
+
+    private BookingCursor decodeCursor(String cursor) {
+        return ObjectUtils.isEmpty(cursor) ? null : BookingCursor.decode(cursor);
+    }
+
+    private BookingPage convertPage(List<Booking> bookings, int size) {
+        String nextCursor = null;
+        if (!bookings.isEmpty() && bookings.size() == size) {
+            nextCursor = BookingCursor.of(bookings.get(bookings.size() - 1)).encode();
+        }
+        return BookingPage.builder()
+                .bookings(convertResponse(bookings))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
     private List<BookingResponse> convertResponse(List<Booking> bookings) {
         return bookings.stream()
                 .map(mapper::mapToDto)
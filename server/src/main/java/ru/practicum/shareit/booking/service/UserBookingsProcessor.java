@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingStateDto;
 import ru.practicum.shareit.booking.model.Booking;
 
@@ -12,4 +13,14 @@ public interface UserBookingsProcessor {
                                        int from,
                                        int size);
 
+    /**
+     * Returns up to size bookings that follow the cursor position.
+     * If cursor is {@literal null} the first page is returned.
+     */
+    List<Booking> getAllBookingsOfUserAfterCursor(boolean isOwner,
+                                                  Long userId,
+                                                  BookingStateDto state,
+                                                  BookingCursor cursor,
+                                                  int size);
+
 }
@@ -2,9 +2,11 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.Builder;
 import lombok.Data;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingStateDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
@@ -30,6 +32,10 @@ public class UserBookingsProcessorImpl implements UserBookingsProcessor {
 
     private Map<BookingStateDto, Function<QueryParams, List<Booking>>> stateToOwnerProcessor;
 
+    private Map<BookingStateDto, Function<QueryParams, List<Booking>>> stateToBookerSeekProcessor;
+
+    private Map<BookingStateDto, Function<QueryParams, List<Booking>>> stateToOwnerSeekProcessor;
+
     public UserBookingsProcessorImpl(BookingRepository bookingRepository) {
         this.bookingRepository = bookingRepository;
     }
@@ -45,6 +51,20 @@ public class UserBookingsProcessorImpl implements UserBookingsProcessor {
                 getBookings(state, params, stateToBookerProcessor);
     }
 
+    @Override
+    public List<Booking> getAllBookingsOfUserAfterCursor(boolean isOwner,
+                                                         Long userId,
+                                                         BookingStateDto state,
+                                                         BookingCursor cursor,
+                                                         int size) {
+        if (cursor == null) {
+            return getAllBookingsOfUser(isOwner, userId, state, 0, size);
+        }
+        QueryParams params = getSeekQueryParams(userId, cursor, size);
+        return isOwner ? getBookings(state, params, stateToOwnerSeekProcessor) :
+                getBookings(state, params, stateToBookerSeekProcessor);
+    }
+
     private List<Booking> getBookings(BookingStateDto state,
                                       QueryParams params,
                                       Map<BookingStateDto, Function<QueryParams, List<Booking>>> map) {
@@ -66,6 +86,17 @@ public class UserBookingsProcessorImpl implements UserBookingsProcessor {
                 .build();
     }
 
+    private QueryParams getSeekQueryParams(Long userId, BookingCursor cursor, int size) {
+        Pageable pageable = PageRequest.of(0, size);
+        LocalDateTime now = LocalDateTime.now();
+        return QueryParams.builder()
+                .now(now)
+                .userId(userId)
+                .pageable(pageable)
+                .cursor(cursor)
+                .build();
+    }
+
     @PostConstruct
     private void initProcessors() {
         stateToBookerProcessor = Map.of(
@@ -91,26 +122,78 @@ public class UserBookingsProcessorImpl implements UserBookingsProcessor {
         );
 
         stateToOwnerProcessor = Map.of(
-                ALL, params -> bookingRepository.findAllByItemOwnerIdOrderByStartDesc(
+                ALL, params -> bookingRepository.findAllByOwnerIdOrderByStartDesc(
                         params.getUserId(), params.getPageable()
                 ),
-                CURRENT, params -> bookingRepository.findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
+                CURRENT, params -> bookingRepository.findAllByOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
                         params.getUserId(), params.getNow(), params.getNow(), params.getPageable()
                 ),
-                PAST, params -> bookingRepository.findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(
+                PAST, params -> bookingRepository.findAllByOwnerIdAndEndBeforeOrderByStartDesc(
                         params.getUserId(), params.getNow(), params.getPageable()
                 ),
-                FUTURE, params -> bookingRepository.findAllByItemOwnerIdAndStartAfterOrderByStartDesc(
+                FUTURE, params -> bookingRepository.findAllByOwnerIdAndStartAfterOrderByStartDesc(
                         params.getUserId(), params.getNow(), params.getPageable()
                 ),
-                WAITING, params -> bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(
+                WAITING, params -> bookingRepository.findAllByOwnerIdAndStatusOrderByStartDesc(
                         params.getUserId(), BookingStatus.WAITING, params.getPageable()
                 ),
-                REJECTED, params -> bookingRepository.findAllByItemOwnerIdAndStatusOrderByStartDesc(
+                REJECTED, params -> bookingRepository.findAllByOwnerIdAndStatusOrderByStartDesc(
                         params.getUserId(), BookingStatus.REJECTED, params.getPageable()
                 )
 
         );
+
+        stateToBookerSeekProcessor = Map.of(
+                ALL, params -> bookingRepository.findAllByBookerIdOrderByStartDescAfterCursor(
+                        params.getUserId(), params.getCursorStart(), params.getCursorId(), params.getPageable()
+                ),
+                CURRENT, params -> bookingRepository.findAllByBookerIdAndStartBeforeAndEndAfterOrderByStartDescAfterCursor(
+                        params.getUserId(), params.getNow(), params.getNow(),
+                        params.getCursorStart(), params.getCursorId(), params.getPageable()
+                ),
+                PAST, params -> bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDescAfterCursor(
+                        params.getUserId(), params.getNow(),
+                        params.getCursorStart(), params.getCursorId(), params.getPageable()
+                ),
+                FUTURE, params -> bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDescAfterCursor(
+                        params.getUserId(), params.getNow(),
+                        params.getCursorStart(), params.getCursorId(), params.getPageable()
+                ),
+                WAITING, params -> bookingRepository.findAllByBookerIdAndStatusOrderByStartDescAfterCursor(
+                        params.getUserId(), BookingStatus.WAITING,
+                        params.getCursorStart(), params.getCursorId(), params.getPageable()
+                ),
+                REJECTED, params -> bookingRepository.findAllByBookerIdAndStatusOrderByStartDescAfterCursor(
+                        params.getUserId(), BookingStatus.REJECTED,
+                        params.getCursorStart(), params.getCursorId(), params.getPageable()
+                )
+        );
+
+        stateToOwnerSeekProcessor = Map.of(
+                ALL, params -> bookingRepository.findAllByOwnerIdOrderByStartDescAfterCursor(
+                        params.getUserId(), params.getCursorStart(), params.getCursorId(), params.getPageable()
+                ),
+                CURRENT, params -> bookingRepository.findAllByOwnerIdAndStartBeforeAndEndAfterOrderByStartDescAfterCursor(
+                        params.getUserId(), params.getNow(), params.getNow(),
+                        params.getCursorStart(), params.getCursorId(), params.getPageable()
+                ),
+                PAST, params -> bookingRepository.findAllByOwnerIdAndEndBeforeOrderByStartDescAfterCursor(
+                        params.getUserId(), params.getNow(),
+                        params.getCursorStart(), params.getCursorId(), params.getPageable()
+                ),
+                FUTURE, params -> bookingRepository.findAllByOwnerIdAndStartAfterOrderByStartDescAfterCursor(
+                        params.getUserId(), params.getNow(),
+                        params.getCursorStart(), params.getCursorId(), params.getPageable()
+                ),
+                WAITING, params -> bookingRepository.findAllByOwnerIdAndStatusOrderByStartDescAfterCursor(
+                        params.getUserId(), BookingStatus.WAITING,
+                        params.getCursorStart(), params.getCursorId(), params.getPageable()
+                ),
+                REJECTED, params -> bookingRepository.findAllByOwnerIdAndStatusOrderByStartDescAfterCursor(
+                        params.getUserId(), BookingStatus.REJECTED,
+                        params.getCursorStart(), params.getCursorId(), params.getPageable()
+                )
+        );
     }
 
     @Builder
@@ -119,5 +202,14 @@ public class UserBookingsProcessorImpl implements UserBookingsProcessor {
         private Long userId;
         private Pageable pageable;
         private LocalDateTime now;
+        private BookingCursor cursor;
+
+        private LocalDateTime getCursorStart() {
+            return cursor.getStart();
+        }
+
+        private Long getCursorId() {
+            return cursor.getId();
+        }
     }
 }
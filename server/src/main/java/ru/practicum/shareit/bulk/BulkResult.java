@@ -0,0 +1,23 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Value;
+
+/**
+ * Outcome of one line of a bulk import: id of the created entity or the reason it was rejected.
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkResult {
+    int line;
+    Long id;
+    String error;
+
+    public static BulkResult created(int line, Long id) {
+        return new BulkResult(line, id, null);
+    }
+
+    public static BulkResult failed(int line, String error) {
+        return new BulkResult(line, null, error);
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.bulk;
+
+import lombok.Value;
+
+/**
+ * Parsed line of a bulk import with its 1-based number in the request body.
+ */
+@Value(staticConstructor = "of")
+public class BulkRow<T> {
+    int line;
+    T value;
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes values as NDJSON, one line each, as the source produces them, so an export of any size
+ * is never held in memory.
+ */
+@Component
+@RequiredArgsConstructor
+public class NdjsonExporter {
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param source passes every exported value to the consumer it is given
+     */
+    public <T> StreamingResponseBody export(Class<T> type, Consumer<Consumer<T>> source) {
+        ObjectWriter writer = objectMapper.writerFor(type);
+        return out -> source.accept(value -> {
+            try {
+                out.write(writer.writeValueAsBytes(value));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.error.ServiceException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Streams an NDJSON bulk import: lines are parsed one by one and handed to the writer in chunks,
+ * each chunk being one transaction with batched inserts. One NDJSON result per line is written
+ * back and flushed after every chunk, so only the current chunk and its results are held in memory.
+ * <p>
+ * If a chunk fails on a constraint, its rows are retried one by one to tell the failing rows from the rest.
+ */
+@Slf4j
+@Component
+public class NdjsonImporter {
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter resultWriter;
+    private final int chunkSize;
+
+    public NdjsonImporter(ObjectMapper objectMapper,
+                          @Value("${shareit.bulk.chunk-size:500}") int chunkSize) {
+        this.objectMapper = objectMapper;
+        this.resultWriter = objectMapper.writerFor(BulkResult.class);
+        this.chunkSize = chunkSize;
+    }
+
+    public <T> StreamingResponseBody importRows(InputStream body,
+                                                Class<T> type,
+                                                Function<List<BulkRow<T>>, List<BulkResult>> writer) {
+        ObjectReader reader = objectMapper.readerFor(type);
+        return out -> {
+            BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            List<BulkRow<T>> chunk = new ArrayList<>(chunkSize);
+            List<BulkResult> results = new ArrayList<>();
+            int lineNumber = 0;
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    chunk.add(BulkRow.of(lineNumber, reader.readValue(line)));
+                } catch (JsonProcessingException e) {
+                    results.add(BulkResult.failed(lineNumber, "Malformed JSON: " + e.getOriginalMessage()));
+                }
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk, results, writer, out);
+                }
+            }
+            writeChunk(chunk, results, writer, out);
+            log.info("Bulk import of {} lines of {} finished.", lineNumber, type.getSimpleName());
+        };
+    }
+
+    private <T> void writeChunk(List<BulkRow<T>> chunk,
+                                List<BulkResult> results,
+                                Function<List<BulkRow<T>>, List<BulkResult>> writer,
+                                OutputStream out) throws IOException {
+        if (!chunk.isEmpty()) {
+            try {
+                results.addAll(writer.apply(chunk));
+            } catch (DataIntegrityViolationException | ServiceException e) {
+                log.debug("Bulk import chunk failed, retrying row by row.", e);
+                chunk.forEach(row -> results.add(writeRow(row, writer)));
+            }
+        }
+        results.sort(Comparator.comparingInt(BulkResult::getLine));
+        for (BulkResult result : results) {
+            out.write(resultWriter.writeValueAsBytes(result));
+            out.write('\n');
+        }
+        out.flush();
+        chunk.clear();
+        results.clear();
+    }
+
+    private <T> BulkResult writeRow(BulkRow<T> row, Function<List<BulkRow<T>>, List<BulkResult>> writer) {
+        try {
+            return writer.apply(List.of(row)).get(0);
+        } catch (DataIntegrityViolationException e) {
+            return BulkResult.failed(row.getLine(), "Row violates a database constraint.");
+        } catch (ServiceException e) {
+            return BulkResult.failed(row.getLine(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.datagen;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Cardinalities and skew of the synthetic data set, bound from {@code shareit.datagen.*}.
+ */
+@Data
+@ConfigurationProperties("shareit.datagen")
+public class DataGeneratorProperties {
+    private int users = 10_000;
+    private int items = 50_000;
+    private int bookings = 200_000;
+    private int comments = 50_000;
+    private int requests = 5_000;
+    /**
+     * Share of items created in response to an item request.
+     */
+    private double itemsWithRequestShare = 0.1;
+    /**
+     * Zipf exponent of the item count per owner.
+     */
+    private double ownerSkew = 1.1;
+    /**
+     * Zipf exponent of the booking count per item.
+     */
+    private double itemPopularitySkew = 0.9;
+    /**
+     * Zipf exponent of the booking count per booker.
+     */
+    private double bookerSkew = 0.8;
+    private long seed = 42;
+    private int batchSize = 1_000;
+}
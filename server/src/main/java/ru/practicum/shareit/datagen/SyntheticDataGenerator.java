@@ -0,0 +1,252 @@
+package ru.practicum.shareit.datagen;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.service.InMemoryItemSearchEngine;
+import ru.practicum.shareit.util.SequenceIds;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Bulk-loads a synthetic data set on startup when the {@code datagen} profile is active.
+ * Combined with {@code ci} it fills the in-memory H2 database, on its own it appends
+ * to the configured Postgres database.
+ * <p>
+ * Distributions are skewed the way a real rental service is: a few owners hold most
+ * of the items, a few items get most of the bookings and a few users book most often.
+ * Approved bookings of the same item may overlap, the data is meant for load testing only.
+ * The same seed produces the same data set.
+ */
+@Slf4j
+@Component
+@Profile("datagen")
+@EnableConfigurationProperties(DataGeneratorProperties.class)
+@RequiredArgsConstructor
+public class SyntheticDataGenerator implements ApplicationRunner {
+    private static final String[] ADJECTIVES = {
+        "Аккумуляторная", "Электрическая", "Складная", "Походная", "Профессиональная",
+        "Компактная", "Детская", "Садовая", "Туристическая", "Надувная"
+    };
+    private static final String[] NOUNS = {
+        "дрель", "пила", "лестница", "палатка", "байдарка", "газонокосилка", "отвертка",
+        "кофемашина", "перфоратор", "тележка", "коляска", "горелка", "шлифмашина", "доска"
+    };
+    private static final String[] PURPOSES = {
+        "для ремонта", "для дачи", "для похода", "для путешествий", "для мастерской", "для дома"
+    };
+    private static final String[] CONDITIONS = {"новая", "отличное состояние", "б/у", "почти новая"};
+    private static final String[] COMMENTS = {
+        "Все отлично, спасибо!", "Работает как надо", "Немного потертая, но рабочая",
+        "Хозяин вещи очень отзывчивый", "Пригодилась, возьму еще"
+    };
+    private static final int MAX_BOOKING_HOURS = 24 * 7;
+    private static final int BOOKING_WINDOW_PAST_DAYS = 365;
+    private static final int BOOKING_WINDOW_FUTURE_DAYS = 90;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataGeneratorProperties properties;
+    private final ObjectProvider<InMemoryItemSearchEngine> inMemorySearchEngine;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.getUsers() < 2) {
+            throw new IllegalStateException("At least two users are required to generate bookings.");
+        }
+        long started = System.nanoTime();
+        Random random = new Random(properties.getSeed());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        long[] userIds = insertUsers();
+        long[] requestIds = insertRequests(random, userIds, now);
+        long[] itemOwnerIds = new long[properties.getItems()];
+        long[] itemIds = insertItems(random, userIds, requestIds, itemOwnerIds);
+        List<FinishedBooking> finishedBookings = insertBookings(random, userIds, itemIds, itemOwnerIds, now);
+        int comments = insertComments(random, finishedBookings, now);
+        inMemorySearchEngine.ifAvailable(InMemoryItemSearchEngine::rebuild);
+
+        log.info("Generated {} users, {} item requests, {} items, {} bookings and {} comments in {} s.",
+                userIds.length, requestIds.length, itemIds.length, properties.getBookings(), comments,
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+    }
+
+    private long[] insertUsers() {
+        // keeps emails unique when the generator is run against the same database twice
+        String runTag = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+        return insertWithIds("users_seq", "insert into users (id, name, email) values (?, ?, ?)",
+                properties.getUsers(),
+                i -> new Object[]{"User " + i, "u" + i + "-" + runTag + "@datagen.local"});
+    }
+
+    private long[] insertRequests(Random random, long[] userIds, LocalDateTime now) {
+        return insertWithIds("item_requests_seq",
+                "insert into item_requests (id, description, requestor_id, created) values (?, ?, ?, ?)",
+                properties.getRequests(),
+                i -> new Object[]{
+                    "Нужна " + pick(random, NOUNS) + " " + pick(random, PURPOSES),
+                    userIds[random.nextInt(userIds.length)],
+                    now.minusMinutes(random.nextInt(BOOKING_WINDOW_PAST_DAYS * 24 * 60))
+                });
+    }
+
+    private long[] insertItems(Random random, long[] userIds, long[] requestIds, long[] itemOwnerIds) {
+        ZipfDistribution owners = new ZipfDistribution(userIds.length, properties.getOwnerSkew());
+        return insertWithIds("items_seq",
+                "insert into items (id, owner_id, name, description, is_available, request_id) values (?, ?, ?, ?, ?, ?)",
+                itemOwnerIds.length,
+                i -> {
+                    itemOwnerIds[i] = userIds[owners.sample(random)];
+                    String noun = pick(random, NOUNS);
+                    boolean answersRequest = requestIds.length > 0
+                            && random.nextDouble() < properties.getItemsWithRequestShare();
+                    return new Object[]{
+                        itemOwnerIds[i],
+                        pick(random, ADJECTIVES) + " " + noun,
+                        "Сдаю " + noun + " " + pick(random, PURPOSES) + ", " + pick(random, CONDITIONS),
+                        random.nextInt(10) != 0,
+                        answersRequest ? requestIds[random.nextInt(requestIds.length)] : null
+                    };
+                });
+    }
+
+    /**
+     * @return finished approved bookings, the only ones comments can be posted for.
+     */
+    private List<FinishedBooking> insertBookings(Random random,
+                                          long[] userIds,
+                                          long[] itemIds,
+                                          long[] itemOwnerIds,
+                                          LocalDateTime now) {
+        List<FinishedBooking> finished = new ArrayList<>();
+        if (itemIds.length == 0) {
+            return finished;
+        }
+        ZipfDistribution items = new ZipfDistribution(itemIds.length, properties.getItemPopularitySkew());
+        ZipfDistribution bookers = new ZipfDistribution(userIds.length, properties.getBookerSkew());
+        LocalDateTime windowStart = now.minusDays(BOOKING_WINDOW_PAST_DAYS);
+        int windowMinutes = (BOOKING_WINDOW_PAST_DAYS + BOOKING_WINDOW_FUTURE_DAYS) * 24 * 60;
+        insertWithIds("bookings_seq",
+                "insert into bookings (id, start_date, end_date, item_id, booker_id, status, owner_id) "
+                        + "values (?, ?, ?, ?, ?, ?, ?)",
+                properties.getBookings(),
+                i -> {
+                    int item = items.sample(random);
+                    // heavy bookers are not the same users as heavy owners
+                    int booker = (bookers.sample(random) + userIds.length / 2) % userIds.length;
+                    if (userIds[booker] == itemOwnerIds[item]) {
+                        booker = (booker + 1) % userIds.length;
+                    }
+                    LocalDateTime start = windowStart.plusMinutes(random.nextInt(windowMinutes));
+                    LocalDateTime end = start.plusHours(1 + random.nextInt(MAX_BOOKING_HOURS));
+                    BookingStatus status = pickStatus(random, start, end, now);
+                    if (status == BookingStatus.APPROVED && end.isBefore(now)) {
+                        finished.add(new FinishedBooking(itemIds[item], userIds[booker], end));
+                    }
+                    return new Object[]{start, end, itemIds[item], userIds[booker], status.name(), itemOwnerIds[item]};
+                });
+        return finished;
+    }
+
+    private int insertComments(Random random, List<FinishedBooking> finishedBookings, LocalDateTime now) {
+        if (finishedBookings.isEmpty()) {
+            log.warn("No finished approved bookings were generated, comments are skipped.");
+            return 0;
+        }
+        insertWithIds("comments_seq",
+                "insert into comments (id, text, item_id, author_id, created) values (?, ?, ?, ?, ?)",
+                properties.getComments(),
+                i -> {
+                    FinishedBooking booking = finishedBookings.get(random.nextInt(finishedBookings.size()));
+                    long hoursSinceEnd = Math.max(1, ChronoUnit.HOURS.between(booking.getEnd(), now));
+                    LocalDateTime created = booking.getEnd()
+                            .plusHours(random.nextInt((int) Math.min(hoursSinceEnd, 72)));
+                    return new Object[]{pick(random, COMMENTS), booking.getItemId(), booking.getBookerId(), created};
+                });
+        return properties.getComments();
+    }
+
+    private BookingStatus pickStatus(Random random, LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        int dice = random.nextInt(10);
+        if (end.isBefore(now)) {
+            return dice < 8 ? BookingStatus.APPROVED : dice < 9 ? BookingStatus.REJECTED : BookingStatus.CANCELED;
+        }
+        if (start.isAfter(now)) {
+            return dice < 4 ? BookingStatus.WAITING : dice < 9 ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        }
+        return BookingStatus.APPROVED;
+    }
+
+    /**
+     * Inserts rows with ids taken from the sequence, the first column of the statement being the id.
+     *
+     * @return ids of the rows in insertion order
+     */
+    private long[] insertWithIds(String sequence, String sql, int count, IntFunction<Object[]> row) {
+        long[] ids = allocateIds(sequence, count);
+        int batchSize = properties.getBatchSize();
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < count; i++) {
+            Object[] values = row.apply(i);
+            Object[] withId = new Object[values.length + 1];
+            withId[0] = ids[i];
+            System.arraycopy(values, 0, withId, 1, values.length);
+            batch.add(withId);
+            if (batch.size() == batchSize) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+        return ids;
+    }
+
+    /**
+     * Takes blocks of ids from the sequence the way Hibernate does, see {@link SequenceIds},
+     * so generated rows never collide with entities created through the API.
+     */
+    private long[] allocateIds(String sequence, int count) {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect();
+        String nextValue = dialect.getSequenceNextValString(sequence);
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i += SequenceIds.ALLOCATION_SIZE) {
+            Long first = jdbcTemplate.queryForObject(nextValue, Long.class);
+            for (int j = 0; j < SequenceIds.ALLOCATION_SIZE && i + j < count; j++) {
+                ids[i + j] = first + j;
+            }
+        }
+        return ids;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    @Value
+    private static class FinishedBooking {
+        long itemId;
+        long bookerId;
+        LocalDateTime end;
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas serving read-only transactions, bound from {@code shareit.read-replicas.*}.
+ */
+@Data
+@ConfigurationProperties("shareit.read-replicas")
+public class ReadReplicaProperties {
+    private boolean enabled;
+    private List<String> urls = new ArrayList<>();
+    /**
+     * Credentials of the replicas, those of the primary when not set.
+     */
+    private String username;
+    private String password;
+    private int maximumPoolSize = 10;
+    /**
+     * How long a read waits for a replica connection before it falls back to the primary.
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(2);
+    /**
+     * Replicas lagging behind the primary by more than this do not serve reads until they catch up.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+    /**
+     * Returns the replication lag in seconds, a replica returning NULL is treated as lagging. The default
+     * is for Postgres streaming replication. A server that is not in recovery has no lag, nor has one that
+     * streams from the primary and has replayed everything it received. A replica without a WAL receiver
+     * is cut off from the primary, so its lag is the time since the last replayed transaction.
+     */
+    private String lagQuery = "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0"
+            + " WHEN EXISTS (SELECT 1 FROM pg_stat_wal_receiver)"
+            + " AND pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+            + " ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+}
@@ -0,0 +1,195 @@
+package ru.practicum.shareit.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands out replica connections inside read-only transactions and primary connections otherwise.
+ * Replicas are taken round-robin among those whose replication lag, checked in the background,
+ * is within the limit. Reads go to the primary when no replica is available or the chosen one
+ * fails to give a connection.
+ * <p>
+ * The read-only flag of a transaction is only known after its connection is requested, so this
+ * data source must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * that asks for the connection on the first statement.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements MeterBinder, AutoCloseable {
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final LongAdder fallbacks = new LongAdder();
+    private ScheduledExecutorService lagChecker;
+
+    public ReadReplicaRoutingDataSource(DataSource primary,
+                                        Map<String, DataSource> replicas,
+                                        String lagQuery,
+                                        Duration maxLag) {
+        this.primary = primary;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("shareit.read-replica.lag", replica, r -> r.lagSeconds)
+                    .tag("replica", replica.name)
+                    .baseUnit("seconds")
+                    .register(registry);
+            Gauge.builder("shareit.read-replica.available", replica, r -> r.available ? 1 : 0)
+                    .tag("replica", replica.name)
+                    .register(registry);
+            FunctionCounter.builder("shareit.read-replica.connections", replica.connections, LongAdder::sum)
+                    .tag("replica", replica.name)
+                    .register(registry);
+        }
+        FunctionCounter.builder("shareit.read-replica.fallbacks", fallbacks, LongAdder::sum)
+                .description("Read-only connections given by the primary because no replica was available")
+                .register(registry);
+    }
+
+    /**
+     * Checks the replicas once, so that reads are routed from the first request on, and then periodically.
+     */
+    public void startLagChecks(Duration interval) {
+        checkReplicas();
+        lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "read-replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagChecker.scheduleWithFixedDelay(this::checkReplicas,
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (lagChecker != null) {
+            lagChecker.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) replica.dataSource).close();
+            }
+        }
+    }
+
+    void checkReplicas() {
+        replicas.forEach(this::check);
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return source.connect(primary);
+        }
+        Replica replica = nextAvailableReplica();
+        if (replica != null) {
+            try {
+                Connection connection = source.connect(replica.dataSource);
+                replica.connections.increment();
+                return connection;
+            } catch (SQLException e) {
+                setAvailable(replica, false, "gives no connections: " + e.getMessage());
+            }
+        }
+        fallbacks.increment();
+        return source.connect(primary);
+    }
+
+    private Replica nextAvailableReplica() {
+        int start = nextReplica.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (replica.available) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private void check(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet lag = statement.executeQuery(lagQuery)) {
+            if (!lag.next()) {
+                throw new SQLException("The lag query returned no rows.");
+            }
+            double lagSeconds = lag.getDouble(1);
+            if (lag.wasNull()) {
+                replica.lagSeconds = Double.NaN;
+                setAvailable(replica, false, "cannot tell its lag behind the primary");
+            } else {
+                replica.lagSeconds = lagSeconds;
+                setAvailable(replica, lagSeconds <= maxLagSeconds, "lags " + lagSeconds + " s behind the primary");
+            }
+        } catch (SQLException | RuntimeException e) {
+            replica.lagSeconds = Double.NaN;
+            setAvailable(replica, false, "failed the lag check: " + e.getMessage());
+        }
+    }
+
+    private void setAvailable(Replica replica, boolean available, String reason) {
+        if (!replica.checked || replica.available != available) {
+            if (available) {
+                log.info("Read replica {} serves reads.", replica.name);
+            } else {
+                log.warn("Read replica {} stops serving reads, it {}", replica.name, reason);
+            }
+        }
+        replica.available = available;
+        replica.checked = true;
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private static class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final LongAdder connections = new LongAdder();
+        private volatile boolean checked;
+        private volatile boolean available;
+        private volatile double lagSeconds = Double.NaN;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
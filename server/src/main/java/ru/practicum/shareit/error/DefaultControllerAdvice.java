@@ -2,6 +2,7 @@ package ru.practicum.shareit.error;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -17,5 +18,16 @@ public class DefaultControllerAdvice {
         return new ResponseEntity<>(response, HttpStatus.valueOf(ex.getCode()));
     }
 
+    /**
+     * No pooled connection became free within the connection timeout, the request may be retried later.
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ErrorResponse> handleCannotCreateTransaction(CannotCreateTransactionException ex) {
+        ErrorResponse response = ErrorResponse.builder()
+                .code(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error("The database is busy, try again later.")
+                .build();
+        return new ResponseEntity<>(response, HttpStatus.SERVICE_UNAVAILABLE);
+    }
 
 }
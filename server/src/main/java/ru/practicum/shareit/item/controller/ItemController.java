@@ -2,14 +2,18 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.bulk.NdjsonImporter;
 import ru.practicum.shareit.item.dto.CommentRequest;
 import ru.practicum.shareit.item.dto.CommentResponse;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.CommentService;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.InputStream;
 import java.util.List;
 
 
@@ -21,6 +25,7 @@ public class ItemController {
 
     private final ItemService itemService;
     private final CommentService commentService;
+    private final NdjsonImporter ndjsonImporter;
     private static final String USER_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
@@ -35,6 +40,20 @@ public class ItemController {
         return ResponseEntity.ok(itemService.saveItem(dto));
     }
 
+    /**
+     * Creates items of the user from an NDJSON body, one item per line, and answers with
+     * one NDJSON result per line in the same order.
+     */
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importItems(@RequestHeader(value = USER_HEADER) Long userId,
+                                                             InputStream body) {
+        log.info("Received POST request to import Items in bulk by user with id = {}", userId);
+        itemService.checkOwnerExists(userId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjsonImporter.importRows(body, ItemDto.class, rows -> itemService.saveItems(userId, rows)));
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<ItemDto> updateItem(@RequestHeader(value = USER_HEADER) Long userId,
                                               @RequestBody ItemDto dto,
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.Value;
+
+/**
+ * Published when cached data of the item page changes: the item itself or its comments.
+ */
+@Value(staticConstructor = "of")
+public class ItemChangedEvent {
+    Long itemId;
+}
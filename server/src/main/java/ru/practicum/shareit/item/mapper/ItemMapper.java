@@ -10,6 +10,7 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 import ru.practicum.shareit.util.Mapper;
 
 @Component
@@ -17,6 +18,7 @@ import ru.practicum.shareit.util.Mapper;
 public class ItemMapper implements Mapper<Item, ItemDto, ItemDto> {
 
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRequestRepository itemRequestRepository;
 
     @Override
@@ -33,11 +35,11 @@ public class ItemMapper implements Mapper<Item, ItemDto, ItemDto> {
 
     @Override
     public Item mapToDomain(ItemDto itemDto) {
-        User owner = userRepository.findById(itemDto.getOwnerId())
-                .orElseThrow(() -> {
-                    String msg = String.format("User with ID=%d not found.", itemDto.getOwnerId());
-                    return new ServiceException(HttpStatus.NOT_FOUND.value(), msg);
-                });
+        if (!userExistenceCache.exists(itemDto.getOwnerId())) {
+            String msg = String.format("User with ID=%d not found.", itemDto.getOwnerId());
+            throw new ServiceException(HttpStatus.NOT_FOUND.value(), msg);
+        }
+        User owner = userRepository.getReferenceById(itemDto.getOwnerId());
         ItemRequest itemRequest = null;
         if (itemDto.getRequestId() != null) {
             itemRequest = itemRequestRepository.findById(itemDto.getRequestId())
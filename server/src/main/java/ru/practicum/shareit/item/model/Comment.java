@@ -5,6 +5,7 @@ import lombok.experimental.Accessors;
 import org.springframework.format.annotation.DateTimeFormat;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.util.DateProcessor;
+import ru.practicum.shareit.util.SequenceIds;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -20,7 +21,8 @@ import java.time.LocalDateTime;
 @Accessors(chain = true)
 public class Comment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_seq")
+    @SequenceGenerator(name = "comments_seq", sequenceName = "comments_seq", allocationSize = SequenceIds.ALLOCATION_SIZE)
     private Long id;
     @Column(name = "text", nullable = false, length = 2000)
     private String text;
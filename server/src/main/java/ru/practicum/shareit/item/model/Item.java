@@ -5,6 +5,7 @@ import lombok.experimental.Accessors;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.SequenceIds;
 
 import javax.persistence.*;
 import java.util.ArrayList;
@@ -21,11 +22,15 @@ import java.util.List;
 @Accessors(chain = true)
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = SequenceIds.ALLOCATION_SIZE)
     private Long id;
+    /**
+     * Cannot be changed once the item is saved, bookings keep a copy of the owner id.
+     */
     @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "owner_id", nullable = false)
+    @JoinColumn(name = "owner_id", nullable = false, updatable = false)
     private User owner;
     @Column(name = "name", nullable = false, length = 100)
     private String name;
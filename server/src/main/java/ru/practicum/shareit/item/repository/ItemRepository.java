@@ -2,10 +2,14 @@ package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSearchView;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,11 +18,26 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     @Query("select i from Item i join fetch i.owner o where i.id = :itemId")
     Optional<Item> findByIdOwnerFetched(@Param("itemId") Long itemId);
 
+    /**
+     * Locks the row of the item until the end of the transaction. Used to serialize
+     * approvals of bookings of the same item across all server instances.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = :itemId")
+    Optional<Item> lockById(@Param("itemId") Long itemId);
+
     @Query("select distinct i from Item i left join fetch i.bookings b where i.id = :itemId")
     Optional<Item> findItemByIdWithBookingsFetched(@Param("itemId") Long itemId);
 
-    @Query("select distinct i from Item i join fetch i.owner u left join fetch i.bookings b where u.id = :ownerId")
-    List<Item> findAllByOwnerIdFetchBookings(@Param("ownerId") Long ownerId, Pageable pageable);
+    /**
+     * First phase of listing items of the owner: pages over ids only so that
+     * the page is applied in the database and not in memory.
+     */
+    @Query("select i.id from Item i where i.owner.id = :ownerId order by i.id")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @Query("select i from Item i join fetch i.owner o where i.id in :ids order by i.id")
+    List<Item> findAllByIdInFetchOwner(@Param("ids") Collection<Long> ids);
 
     @Query("select i from Item i join fetch i.owner o " +
             "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
@@ -26,8 +45,32 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "and i.available = true")
     List<Item> searchAllAvailableItemsFetchOwnerByQuery(String query, Pageable pageable);
 
+    /**
+     * Postgres only. Pattern is the query with like wildcards escaped; matching is served
+     * by trigram indexes on name and description.
+     */
+    @Query(value = "select i.* from items i " +
+            "where i.is_available = true " +
+            "and (i.name ilike concat('%', :pattern, '%') or i.description ilike concat('%', :pattern, '%')) " +
+            "order by greatest(similarity(i.name, :query), word_similarity(:query, i.description)) desc, i.id",
+            nativeQuery = true)
+    List<Item> searchAllAvailableItemsRanked(@Param("query") String query,
+                                             @Param("pattern") String pattern,
+                                             Pageable pageable);
+
+    /**
+     * Keyset-paged scan of the fields indexed by the in-memory search engine.
+     */
+    @Query("select i.id as id, i.name as name, i.description as description, i.available as available, " +
+            "o.id as ownerId, r.id as requestId " +
+            "from Item i join i.owner o left join i.request r " +
+            "where i.id > :afterId order by i.id")
+    List<ItemSearchView> findSearchViewsAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
     List<Item> findAllByRequest_Id(Long requestId);
 
+    List<Item> findAllByRequest_IdIn(Collection<Long> requestIds);
+
     void deleteAllByOwner_Id(Long ownerId);
 
     void deleteItemByIdAndOwner_Id(Long itemId, Long ownerId);
@@ -1,10 +1,12 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.item.dto.CommentRequest;
 import ru.practicum.shareit.item.dto.CommentResponse;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.repository.CommentRepository;
@@ -21,10 +23,12 @@ public class CommentServiceImpl implements CommentService {
 
     private final CommentRepository commentRepository;
     private final CommentMapper mapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public CommentResponse saveComment(CommentRequest commentRequest) {
         Comment saved = commentRepository.save(mapper.mapToDomain(commentRequest));
+        eventPublisher.publishEvent(ItemChangedEvent.of(saved.getItem().getId()));
         return mapper.mapToDto(saved);
     }
 
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSearchView;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemTrigramIndex.IndexedItem;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.util.TransactionCallbacks.afterCommit;
+
+/**
+ * Answers searches from an in-process trigram index without querying the database.
+ * The index is built from ItemRepository at startup and is kept current by
+ * item changes made through ItemService of this node.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory")
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    static final int REBUILD_BATCH_SIZE = 10_000;
+
+    private final ItemRepository itemRepository;
+
+    private volatile ItemTrigramIndex index = new ItemTrigramIndex();
+
+    @PostConstruct
+    public void rebuild() {
+        ItemTrigramIndex rebuilt = new ItemTrigramIndex();
+        long afterId = 0;
+        List<ItemSearchView> batch;
+        do {
+            batch = itemRepository.findSearchViewsAfterId(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            rebuilt.putAll(batch.stream().map(IndexedItem::of).collect(Collectors.toList()));
+            if (!batch.isEmpty()) {
+                afterId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        index = rebuilt;
+        log.info("Item search index built, {} items indexed.", rebuilt.size());
+    }
+
+    @Override
+    public List<Item> searchAvailableItems(String query, Pageable pageable) {
+        return index.searchAvailable(query, pageable.getOffset(), pageable.getPageSize())
+                .stream()
+                .map(this::toItem)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void itemSaved(Item item) {
+        IndexedItem indexed = IndexedItem.of(item);
+        afterCommit(() -> index.put(indexed));
+    }
+
+    @Override
+    public void itemDeleted(Long itemId, Long ownerId) {
+        afterCommit(() -> index.remove(Math.toIntExact(itemId), ownerId));
+    }
+
+    @Override
+    public void ownerItemsDeleted(Long ownerId) {
+        afterCommit(() -> index.removeAllOfOwner(ownerId));
+    }
+
+    /**
+     * Detached item carrying only the fields needed to build ItemDto.
+     */
+    private Item toItem(IndexedItem indexed) {
+        return new Item()
+                .setId((long) indexed.getId())
+                .setName(indexed.getName())
+                .setDescription(indexed.getDescription())
+                .setAvailable(indexed.isAvailable())
+                .setOwner(User.builder().id(indexed.getOwnerId()).build())
+                .setRequest(indexed.getRequestId() == null
+                        ? null
+                        : new ItemRequest().setId(indexed.getRequestId()));
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+
+import java.util.function.Function;
+
+/**
+ * Cache of assembled item pages without the last and next bookings, which only the owner sees
+ * and which are loaded for the owner on every request.
+ * Entries are dropped on {@link ItemChangedEvent} after the publishing transaction commits.
+ * Events are not shared between processes, so the server is deployed as a single instance:
+ * another instance would serve an item changed elsewhere for up to the TTL of its cache.
+ */
+public interface ItemDtoCache {
+
+    /**
+     * Returns the cached view of the item, loading it on miss.
+     * The returned dto is a copy and may be modified by the caller.
+     */
+    ItemDto get(Long itemId, Function<Long, ItemDto> loader);
+
+    void invalidate(Long itemId);
+}
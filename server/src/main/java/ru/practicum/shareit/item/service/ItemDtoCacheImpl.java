@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Caffeine cache bounded by size with W-TinyLFU eviction, an entry expires after the configured TTL.
+ * Hit, miss and eviction counts are exported as {@code cache.*} metrics with tag cache=items.
+ */
+@Component
+public class ItemDtoCacheImpl implements ItemDtoCache {
+    static final String CACHE_NAME = "items";
+
+    private final AsyncCache<Long, ItemDto> cache;
+
+    public ItemDtoCacheImpl(@Value("${shareit.item-cache.maximum-size:10000}") long maximumSize,
+                            @Value("${shareit.item-cache.ttl:10m}") Duration ttl,
+                            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), CACHE_NAME);
+    }
+
+    @Override
+    public ItemDto get(Long itemId, Function<Long, ItemDto> loader) {
+        ItemDto view = getOrLoad(itemId, loader);
+        ItemDto copy = view.toBuilder().build();
+        if (view.getComments() != null) {
+            copy.setComments(new ArrayList<>(view.getComments()));
+        }
+        return copy;
+    }
+
+    @Override
+    public void invalidate(Long itemId) {
+        cache.synchronous().invalidate(itemId);
+    }
+
+    /**
+     * Only a future is put into the cache under its lock, the item is loaded by the calling thread
+     * within its transaction afterwards. A virtual thread is thus not pinned for the duration of the
+     * queries, and concurrent callers wait for the future without holding a lock. The future is completed
+     * whatever the loader throws, otherwise the callers waiting for it would never return.
+     */
+    private ItemDto getOrLoad(Long itemId, Function<Long, ItemDto> loader) {
+        CompletableFuture<ItemDto> loading = new CompletableFuture<>();
+        CompletableFuture<ItemDto> entry = cache.get(itemId, (id, executor) -> loading);
+        if (entry == loading) {
+            try {
+                loading.complete(loader.apply(itemId));
+            } catch (Throwable e) {
+                loading.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return entry.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * An entry being loaded concurrently is dropped as soon as its load completes,
+     * so data read before the commit does not stay in the cache.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        invalidate(event.getItemId());
+    }
+}
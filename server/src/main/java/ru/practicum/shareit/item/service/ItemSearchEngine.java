@@ -0,0 +1,38 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Backend of item search. The implementation is chosen by the
+ * {@code shareit.search.engine} property.
+ */
+public interface ItemSearchEngine {
+
+    /**
+     * Returns available items whose name or description contains the query
+     * ignoring case, most relevant first. Only the id of each item's owner
+     * is guaranteed to be set.
+     */
+    List<Item> searchAvailableItems(String query, Pageable pageable);
+
+    /**
+     * Called after item was created or updated. Engines searching the database need not react.
+     */
+    default void itemSaved(Item item) {
+    }
+
+    /**
+     * Called after item of the owner was deleted.
+     */
+    default void itemDeleted(Long itemId, Long ownerId) {
+    }
+
+    /**
+     * Called after all items of the owner were deleted.
+     */
+    default void ownerItemsDeleted(Long ownerId) {
+    }
+}
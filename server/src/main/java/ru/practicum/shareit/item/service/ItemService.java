@@ -1,5 +1,7 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.bulk.BulkRow;
+import ru.practicum.shareit.bulk.BulkResult;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.util.List;
@@ -11,6 +13,18 @@ public interface ItemService {
 
     ItemDto saveItem(ItemDto dto);
 
+    /**
+     * Throws {@link ru.practicum.shareit.error.ServiceException} if the owner doesn't exist,
+     * so that a bulk import is refused before its response is started.
+     */
+    void checkOwnerExists(long ownerId);
+
+    /**
+     * Creates items of the owner in one transaction with batched inserts. Invalid rows are
+     * reported in the results and skipped; a constraint violation fails the whole call.
+     */
+    List<BulkResult> saveItems(long ownerId, List<BulkRow<ItemDto>> rows);
+
     List<ItemDto> getItemsForUser(long userId, int from, int size);
 
     List<ItemDto> searchAvailableItems(String query, int from, int size);
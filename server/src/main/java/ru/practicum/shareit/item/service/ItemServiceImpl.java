@@ -1,49 +1,76 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.ObjectUtils;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingShortView;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.bulk.BulkResult;
+import ru.practicum.shareit.bulk.BulkRow;
 import ru.practicum.shareit.error.ServiceException;
 import ru.practicum.shareit.item.dto.BookingResponseDto;
 import ru.practicum.shareit.item.dto.CommentResponse;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 import ru.practicum.shareit.util.OffsetBasedPageRequest;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BinaryOperator;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ItemServiceImpl implements ItemService {
+    private static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
     private final ItemRepository itemRepository;
     private final ItemMapper itemMapper;
-    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final CommentService commentService;
+    private final BookingRepository bookingRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemDtoCache itemDtoCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserRepository userRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final EntityManager entityManager;
 
-    @Transactional(readOnly = true)
+    /**
+     * Not read-only, so that a miss is loaded from the primary: an item read from a lagging replica
+     * right after its invalidation would stay in the cache for the whole TTL.
+     */
+    @Transactional
     @Override
     public ItemDto findById(Long itemId, Long userId) {
-        Item item = findItemBookingsFetchedOrThrow(itemId);
-        ItemDto dto = itemMapper.mapToDto(item);
-        setBookings(dto, item, userId);
-        addCommentsToDtoFromDb(dto, itemId);
+        ItemDto dto = itemDtoCache.get(itemId, this::loadItemView);
+        if (userId.equals(dto.getOwnerId())) {
+            setLastAndNextBookingsFromDb(dto);
+        }
         return dto;
     }
 
@@ -54,6 +81,8 @@ public class ItemServiceImpl implements ItemService {
         checkItemBelongsToUser(toUpdate, ownerId);
         updateItem(patchDto, toUpdate);
         itemRepository.save(toUpdate);
+        itemSearchEngine.itemSaved(toUpdate);
+        eventPublisher.publishEvent(ItemChangedEvent.of(toUpdate.getId()));
         return toItemDto(toUpdate);
     }
 
@@ -61,17 +90,65 @@ public class ItemServiceImpl implements ItemService {
     public ItemDto saveItem(ItemDto dto) {
         Item item = itemMapper.mapToDomain(dto);
         Item saved = itemRepository.save(item);
+        itemSearchEngine.itemSaved(saved);
         return toItemDto(saved);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public void checkOwnerExists(long ownerId) {
+        checkUserExists(ownerId);
+    }
+
+    /**
+     * Owner and item requests are resolved once for the whole chunk. The persistence context is
+     * cleared after the flush: it may outlive the transaction and would otherwise grow with every chunk.
+     */
+    @Override
+    public List<BulkResult> saveItems(long ownerId, List<BulkRow<ItemDto>> rows) {
+        checkUserExists(ownerId);
+        User owner = userRepository.getReferenceById(ownerId);
+        Map<Long, ItemRequest> requests = findRequestsOfRows(rows);
+        List<BulkResult> results = new ArrayList<>(rows.size());
+        List<BulkRow<Item>> toSave = new ArrayList<>(rows.size());
+        for (BulkRow<ItemDto> row : rows) {
+            ItemDto dto = row.getValue();
+            String error = validateNewItem(dto, requests);
+            if (error != null) {
+                results.add(BulkResult.failed(row.getLine(), error));
+                continue;
+            }
+            Item item = Item.builder()
+                    .name(dto.getName())
+                    .description(dto.getDescription())
+                    .owner(owner)
+                    .available(dto.getAvailable())
+                    .request(dto.getRequestId() != null ? requests.get(dto.getRequestId()) : null)
+                    .build();
+            toSave.add(BulkRow.of(row.getLine(), item));
+        }
+        itemRepository.saveAll(toSave.stream().map(BulkRow::getValue).collect(Collectors.toList()));
+        itemRepository.flush();
+        for (BulkRow<Item> row : toSave) {
+            itemSearchEngine.itemSaved(row.getValue());
+            results.add(BulkResult.created(row.getLine(), row.getValue().getId()));
+        }
+        entityManager.clear();
+        return results;
+    }
+
     @Transactional(readOnly = true)
     @Override
     public List<ItemDto> getItemsForUser(long userId, int from, int size) {
         Pageable pageable = new OffsetBasedPageRequest(from, size);
-        Map<Long, Item> idToItem = getItemsMapFetchedWithBookings(userId, pageable);
+        List<Long> ids = itemRepository.findIdsByOwnerId(userId, pageable);
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Item> items = itemRepository.findAllByIdInFetchOwner(ids);
         Map<Long, List<CommentResponse>> itemIdToComments =
-                commentService.getItemIdToComments(idToItem.keySet());
-        return createItemDtos(idToItem, itemIdToComments);
+                commentService.getItemIdToComments(Set.copyOf(ids));
+        return createItemDtos(items, itemIdToComments);
     }
 
     @Transactional(readOnly = true)
@@ -81,7 +158,7 @@ public class ItemServiceImpl implements ItemService {
             return Collections.emptyList();
         }
         Pageable pageable = new OffsetBasedPageRequest(from, size);
-        List<Item> items = itemRepository.searchAllAvailableItemsFetchOwnerByQuery(query, pageable);
+        List<Item> items = itemSearchEngine.searchAvailableItems(query, pageable);
         return items
                 .stream()
                 .map(this::toItemDto)
@@ -90,12 +167,45 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public void deleteItemsForUser(long userId) {
+        itemRepository.findIdsByOwnerId(userId, Pageable.unpaged())
+                .forEach(id -> eventPublisher.publishEvent(ItemChangedEvent.of(id)));
         itemRepository.deleteAllByOwner_Id(userId);
+        itemSearchEngine.ownerItemsDeleted(userId);
     }
 
     @Override
     public void deleteItem(long userId, long itemId) {
-        itemRepository.deleteItemByIdAndOwner_Id(userId, itemId);
+        itemRepository.deleteItemByIdAndOwner_Id(itemId, userId);
+        itemSearchEngine.itemDeleted(itemId, userId);
+        eventPublisher.publishEvent(ItemChangedEvent.of(itemId));
+    }
+
+    private Map<Long, ItemRequest> findRequestsOfRows(List<BulkRow<ItemDto>> rows) {
+        Set<Long> requestIds = rows.stream()
+                .map(row -> row.getValue().getRequestId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (requestIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+    }
+
+    private static String validateNewItem(ItemDto dto, Map<Long, ItemRequest> requests) {
+        if (ObjectUtils.isEmpty(dto.getName())) {
+            return "Name must not be empty.";
+        }
+        if (ObjectUtils.isEmpty(dto.getDescription())) {
+            return "Description must not be empty.";
+        }
+        if (dto.getAvailable() == null) {
+            return "Available must not be null.";
+        }
+        if (dto.getRequestId() != null && !requests.containsKey(dto.getRequestId())) {
+            return String.format("Item request with ID=%d not found.", dto.getRequestId());
+        }
+        return null;
     }
 
     private void updateItem(ItemDto patchDto, Item toUpdate) {
@@ -122,8 +232,8 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
-    private Item findItemBookingsFetchedOrThrow(Long itemId) {
-        return itemRepository.findItemByIdWithBookingsFetched(itemId)
+    private Item findItemOwnerFetchedOrThrow(Long itemId) {
+        return itemRepository.findByIdOwnerFetched(itemId)
                 .orElseThrow(() -> {
                     String msg = String.format("Item with id=%d not found.", itemId);
                     return new ServiceException(HttpStatus.NOT_FOUND.value(), msg);
@@ -150,7 +260,7 @@ public class ItemServiceImpl implements ItemService {
     }
 
     private void checkUserExists(Long ownerId) {
-        if (userRepository.getReferenceById(ownerId).getId() == null) {
+        if (!userExistenceCache.exists(ownerId)) {
             String msg = String.format("User with ID=%d not found.", ownerId);
             throw new ServiceException(HttpStatus.NOT_FOUND.value(), msg);
         }
@@ -168,68 +278,71 @@ public class ItemServiceImpl implements ItemService {
                 .build();
     }
 
-    private Consumer<Booking> addLastBookings(ItemDto dto) {
-        return b -> {
-            dto.setLastBooking(BookingResponseDto.builder()
-                    .id(b.getId())
-                    .bookerId(b.getBooker().getId())
-                    .build());
-        };
-    }
-
-    private Predicate<Booking> isStartedAndApprovedBeforeNow(LocalDateTime now) {
-        return b -> (b.getEnd().isBefore(now) || (b.getEnd().isAfter(now) && b.getStart().isBefore(now)))
-                && b.getStatus().equals(BookingStatus.APPROVED);
-    }
-
-    private Consumer<Booking> addNextBooking(ItemDto dto) {
-        return b -> {
-            dto.setNextBooking(BookingResponseDto.builder()
-                    .id(b.getId())
-                    .bookerId(b.getBooker().getId())
-                    .build());
-        };
-    }
-
-    private Predicate<Booking> isActiveAfterNow(LocalDateTime now) {
-        return b -> b.getStart().isAfter(now)
-                && (b.getStatus().equals(BookingStatus.WAITING)
-                || b.getStatus().equals(BookingStatus.APPROVED));
-    }
-
-
-    private List<ItemDto> createItemDtos(Map<Long, Item> idToItem,
+    private List<ItemDto> createItemDtos(List<Item> items,
                                          Map<Long, List<CommentResponse>> itemIdToComments) {
-        return idToItem.values().stream()
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = items.stream().map(Item::getId).collect(Collectors.toList());
+        Map<Long, BookingShortView> lastBookings = toItemIdToBooking(
+                bookingRepository.findLastBookingsOfItems(ids, BookingStatus.APPROVED, now));
+        Map<Long, BookingShortView> nextBookings = toItemIdToBooking(
+                bookingRepository.findNextBookingsOfItems(ids, ACTIVE_STATUSES, now));
+        return items.stream()
                 .map(i -> {
                     ItemDto dto = itemMapper.mapToDto(i);
-                    setBookings(dto, i, i.getOwner().getId());
+                    setBookingIfPresent(lastBookings.get(i.getId()), dto::setLastBooking);
+                    setBookingIfPresent(nextBookings.get(i.getId()), dto::setNextBooking);
                     addCommentsToDtoFromMem(dto, itemIdToComments);
                     return dto;
                 })
                 .collect(Collectors.toList());
     }
 
-    private void setBookings(ItemDto dto, Item item, Long userId) {
-        if (userId.equals(dto.getOwnerId())) {
-            LocalDateTime now = LocalDateTime.now();
-            List<Booking> bookings = item.getBookings();
-            bookings.stream()
-                    .filter(isActiveAfterNow(now))
-                    .min(Comparator.comparing(Booking::getStart))
-                    .ifPresent(addNextBooking(dto));
+    /**
+     * Bookings of an item sharing the same start are resolved in favour of the one
+     * with the greatest id.
+     */
+    private Map<Long, BookingShortView> toItemIdToBooking(List<BookingShortView> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(BookingShortView::getItemId,
+                        Function.identity(),
+                        BinaryOperator.maxBy(Comparator.comparing(BookingShortView::getId))));
+    }
 
-            bookings.stream()
-                    .filter(isStartedAndApprovedBeforeNow(now))
-                    .max(Comparator.comparing(Booking::getStart))
-                    .ifPresent(addLastBookings(dto));
+    private void setBookingIfPresent(BookingShortView booking, Consumer<BookingResponseDto> setter) {
+        if (booking != null) {
+            setter.accept(toBookingResponseDto(booking));
         }
     }
 
-    private Map<Long, Item> getItemsMapFetchedWithBookings(long userId, Pageable pageable) {
-        return itemRepository.findAllByOwnerIdFetchBookings(userId, pageable)
+    private ItemDto loadItemView(Long itemId) {
+        Item item = findItemOwnerFetchedOrThrow(itemId);
+        ItemDto dto = itemMapper.mapToDto(item);
+        addCommentsToDtoFromDb(dto, itemId);
+        return dto;
+    }
+
+    /**
+     * Loads only the latest past and the earliest future booking of the item
+     * instead of its whole booking history.
+     */
+    private void setLastAndNextBookingsFromDb(ItemDto dto) {
+        LocalDateTime now = LocalDateTime.now();
+        Pageable first = PageRequest.of(0, 1);
+        bookingRepository.findLastBookingsOfItem(dto.getId(), BookingStatus.APPROVED, now, first)
+                .stream()
+                .findFirst()
+                .ifPresent(b -> dto.setLastBooking(toBookingResponseDto(b)));
+        bookingRepository.findNextBookingsOfItem(dto.getId(), ACTIVE_STATUSES, now, first)
                 .stream()
-                .collect(Collectors.toMap(Item::getId, Function.identity()));
+                .findFirst()
+                .ifPresent(b -> dto.setNextBooking(toBookingResponseDto(b)));
+    }
+
+    private BookingResponseDto toBookingResponseDto(BookingShortView booking) {
+        return BookingResponseDto.builder()
+                .id(booking.getId())
+                .bookerId(booking.getBookerId())
+                .build();
     }
 
     private void addCommentsToDtoFromMem(ItemDto dto,
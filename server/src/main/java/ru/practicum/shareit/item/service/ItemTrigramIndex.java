@@ -0,0 +1,242 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSearchView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Inverted index from character trigrams of lower-cased item name and description
+ * to ids of items containing them. A query matches an item if the item contains
+ * the query as a substring ignoring case, the same as the SQL search: candidates
+ * are the intersection of posting lists of the query trigrams and are verified
+ * against the indexed text.
+ */
+class ItemTrigramIndex {
+    static final int GRAM_LENGTH = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, IndexedItem> idToItem = new HashMap<>();
+    private final Map<String, IntPostingList> gramToIds = new HashMap<>();
+
+    void put(IndexedItem item) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(item.getId());
+            addUnlocked(item, grams(item));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tokenizes items in parallel and then adds them to the index.
+     */
+    void putAll(List<IndexedItem> items) {
+        List<Set<String>> grams = items.parallelStream()
+                .map(ItemTrigramIndex::grams)
+                .collect(Collectors.toList());
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < items.size(); i++) {
+                IndexedItem item = items.get(i);
+                removeUnlocked(item.getId());
+                addUnlocked(item, grams.get(i));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(int id, Long ownerId) {
+        lock.writeLock().lock();
+        try {
+            IndexedItem item = idToItem.get(id);
+            if (item != null && item.getOwnerId().equals(ownerId)) {
+                removeUnlocked(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void removeAllOfOwner(Long ownerId) {
+        lock.writeLock().lock();
+        try {
+            List<Integer> ids = idToItem.values().stream()
+                    .filter(i -> i.getOwnerId().equals(ownerId))
+                    .map(IndexedItem::getId)
+                    .collect(Collectors.toList());
+            ids.forEach(this::removeUnlocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return idToItem.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns available items containing the query, items matching by name first,
+     * each group ordered by id.
+     */
+    List<IndexedItem> searchAvailable(String query, long offset, int limit) {
+        String normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            List<IndexedItem> byName = new ArrayList<>();
+            List<IndexedItem> byDescription = new ArrayList<>();
+            for (int id : candidates(normalized)) {
+                IndexedItem item = idToItem.get(id);
+                if (!item.isAvailable()) {
+                    continue;
+                }
+                if (item.getLowerName().contains(normalized)) {
+                    byName.add(item);
+                } else if (item.getLowerDescription().contains(normalized)) {
+                    byDescription.add(item);
+                }
+            }
+            byName.addAll(byDescription);
+            return byName.stream()
+                    .skip(offset)
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] candidates(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            int[] all = idToItem.keySet().stream().mapToInt(Integer::intValue).toArray();
+            Arrays.sort(all);
+            return all;
+        }
+        List<IntPostingList> lists = new ArrayList<>();
+        for (String gram : gramsOf(query, new HashSet<>())) {
+            IntPostingList ids = gramToIds.get(gram);
+            if (ids == null) {
+                return new int[0];
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(IntPostingList::size));
+        int[] result = lists.get(0).toArray();
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = lists.get(i).retainContained(result);
+        }
+        return result;
+    }
+
+    private void addUnlocked(IndexedItem item, Set<String> grams) {
+        idToItem.put(item.getId(), item);
+        for (String gram : grams) {
+            gramToIds.computeIfAbsent(gram, g -> new IntPostingList()).add(item.getId());
+        }
+    }
+
+    private void removeUnlocked(int id) {
+        IndexedItem item = idToItem.remove(id);
+        if (item == null) {
+            return;
+        }
+        for (String gram : grams(item)) {
+            IntPostingList ids = gramToIds.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    gramToIds.remove(gram);
+                }
+            }
+        }
+    }
+
+    private static Set<String> grams(IndexedItem item) {
+        Set<String> grams = new HashSet<>();
+        gramsOf(item.getLowerName(), grams);
+        gramsOf(item.getLowerDescription(), grams);
+        return grams;
+    }
+
+    private static Set<String> gramsOf(String text, Set<String> grams) {
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Copy of the item fields needed to answer a search without the database.
+     */
+    @Value
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    static class IndexedItem {
+        int id;
+        String name;
+        String description;
+        String lowerName;
+        String lowerDescription;
+        boolean available;
+        Long ownerId;
+        Long requestId;
+
+        static IndexedItem of(Long id,
+                              String name,
+                              String description,
+                              Boolean available,
+                              Long ownerId,
+                              Long requestId) {
+            return new IndexedItem(Math.toIntExact(id),
+                    name,
+                    description,
+                    normalize(name),
+                    normalize(description),
+                    Boolean.TRUE.equals(available),
+                    ownerId,
+                    requestId);
+        }
+
+        static IndexedItem of(Item item) {
+            return of(item.getId(),
+                    item.getName(),
+                    item.getDescription(),
+                    item.getAvailable(),
+                    item.getOwner().getId(),
+                    item.getRequest() == null ? null : item.getRequest().getId());
+        }
+
+        static IndexedItem of(ItemSearchView view) {
+            return of(view.getId(),
+                    view.getName(),
+                    view.getDescription(),
+                    view.getAvailable(),
+                    view.getOwnerId(),
+                    view.getRequestId());
+        }
+    }
+}
@@ -12,9 +12,13 @@ import ru.practicum.shareit.request.dto.ItemResponse;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 import ru.practicum.shareit.util.Mapper;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
@@ -22,6 +26,7 @@ import java.util.stream.Collectors;
 public class ItemRequestMapper implements Mapper<ItemRequest, ItemRequestDto, ItemRequestResponse> {
 
     private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemRepository itemRepository;
 
     @Override
@@ -30,30 +35,53 @@ public class ItemRequestMapper implements Mapper<ItemRequest, ItemRequestDto, It
                 .stream()
                 .map(i -> mapItem(i, domain.getId()))
                 .collect(Collectors.toList());
-        return ItemRequestResponse.builder()
-                .id(domain.getId())
-                .description(domain.getDescription())
-                .created(domain.getCreated())
-                .items(items)
-                .build();
+        return toResponse(domain, items);
+    }
+
+    /**
+     * Maps a page of requests loading items of all of them with a single query.
+     */
+    public List<ItemRequestResponse> mapToDtos(List<ItemRequest> domains) {
+        if (domains.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Set<Long> requestIds = domains.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toSet());
+        Map<Long, List<ItemResponse>> requestIdToItems = itemRepository.findAllByRequest_IdIn(requestIds)
+                .stream()
+                .map(i -> mapItem(i, i.getRequest().getId()))
+                .collect(Collectors.groupingBy(ItemResponse::getRequestId));
+        return domains.stream()
+                .map(r -> toResponse(r, requestIdToItems.getOrDefault(r.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
     }
 
     @Override
     public ItemRequest mapToDomain(ItemRequestDto dto) {
-        User requestor = userRepository.findById(dto.getRequestorId())
-                .orElseThrow(() -> {
-                    String msg = String.format(
-                            "Item Requestor with ID=%d not found.",
-                            dto.getRequestorId()
-                    );
-                    return new ServiceException(HttpStatus.NOT_FOUND.value(), msg);
-                });
+        if (!userExistenceCache.exists(dto.getRequestorId())) {
+            String msg = String.format(
+                    "Item Requestor with ID=%d not found.",
+                    dto.getRequestorId()
+            );
+            throw new ServiceException(HttpStatus.NOT_FOUND.value(), msg);
+        }
+        User requestor = userRepository.getReferenceById(dto.getRequestorId());
         return ItemRequest.builder()
                 .description(dto.getDescription())
                 .requestor(requestor)
                 .build();
     }
 
+    private ItemRequestResponse toResponse(ItemRequest domain, List<ItemResponse> items) {
+        return ItemRequestResponse.builder()
+                .id(domain.getId())
+                .description(domain.getDescription())
+                .created(domain.getCreated())
+                .items(items)
+                .build();
+    }
+
     private ItemResponse mapItem(Item item, long requestId) {
         return ItemResponse.builder()
                 .id(item.getId())
@@ -12,11 +12,10 @@ import ru.practicum.shareit.request.dto.ItemRequestResponse;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 import ru.practicum.shareit.util.OffsetBasedPageRequest;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,7 +24,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository itemRequestRepository;
     private final ItemRequestMapper mapper;
-    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
 
     @Transactional
     @Override
@@ -38,10 +37,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     public List<ItemRequestResponse> getItemRequestsOfUser(Long userId) {
         checkUserExists(userId);
-        return itemRequestRepository.findAllByRequestor_Id(userId)
-                .stream()
-                .map(mapper::mapToDto)
-                .collect(Collectors.toList());
+        return mapper.mapToDtos(itemRequestRepository.findAllByRequestor_Id(userId));
     }
 
     @Override
@@ -49,10 +45,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         Pageable pageable = new OffsetBasedPageRequest(from,
                 size,
                 Sort.by(Sort.Direction.DESC, "created"));
-        return itemRequestRepository.findAllNotOfUser(userId, pageable)
-                .stream()
-                .map(mapper::mapToDto)
-                .collect(Collectors.toList());
+        return mapper.mapToDtos(itemRequestRepository.findAllNotOfUser(userId, pageable));
     }
 
     @Override
@@ -67,8 +60,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     private void checkUserExists(Long userId) {
-        boolean exists = userRepository.existsById(userId);
-        if (!exists) {
+        if (!userExistenceCache.exists(userId)) {
             String msg = String.format("User with ID=%d not found.", userId);
             throw new ServiceException(HttpStatus.NOT_FOUND.value(), msg);
         }
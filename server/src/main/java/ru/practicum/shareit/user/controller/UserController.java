@@ -3,11 +3,15 @@ package ru.practicum.shareit.user.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.bulk.NdjsonImporter;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -17,6 +21,7 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final NdjsonImporter ndjsonImporter;
 
     @PatchMapping("/{userId}")
     public ResponseEntity<UserDto> updateUser(@PathVariable("userId") long userId,
@@ -41,6 +46,18 @@ public class UserController {
         return ResponseEntity.ok(userService.create(dto));
     }
 
+    /**
+     * Creates users from an NDJSON body, one user per line, and answers with
+     * one NDJSON result per line in the same order.
+     */
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> importUsers(InputStream body) {
+        log.info("Received request to POST users in bulk.");
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(ndjsonImporter.importRows(body, UserDto.class, userService::createUsers));
+    }
+
     @GetMapping("/{userId}")
     public ResponseEntity<UserDto> getUserById(@PathVariable("userId") long userId) {
         log.info("Received request to GET user by id={}", userId);
@@ -3,10 +3,21 @@ package ru.practicum.shareit.user.dto;
 import lombok.Builder;
 import lombok.Data;
 
+import javax.validation.constraints.Email;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Constraints are those of a new user. The gateway checks them for single requests,
+ * the server for the rows of a bulk import.
+ */
 @Data
 @Builder
 public class UserDto {
     private Long id;
+    @NotBlank(message = "Name must not be blank.")
     private String name;
+    @Email(message = "Email must be a well-formed email address.")
+    @NotNull(message = "Email must not be null.")
     private String email;
 }
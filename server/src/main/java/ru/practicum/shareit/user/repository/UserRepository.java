@@ -1,8 +1,13 @@
 package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.shareit.user.model.EmailView;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Collection;
+import java.util.List;
+
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    List<EmailView> findAllByEmailIn(Collection<String> emails);
 }
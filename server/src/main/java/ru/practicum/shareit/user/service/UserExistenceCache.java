@@ -0,0 +1,26 @@
+package ru.practicum.shareit.user.service;
+
+/**
+ * Set of ids of users known to exist, consulted instead of the database on every request.
+ */
+public interface UserExistenceCache {
+
+    /**
+     * Answers from memory for known ids. Unknown ids are checked in the database and
+     * remembered if the user exists; absence is never cached, since the user may be
+     * created by another server instance.
+     */
+    boolean exists(Long userId);
+
+    /**
+     * Remembers created user. Takes effect after the current transaction commits.
+     */
+    void addUser(Long userId);
+
+    /**
+     * Forgets deleted user. Takes effect after the current transaction commits, and only in this
+     * instance: another one keeps the user until restarted, which is one reason the server is deployed
+     * as a single instance. Writes referring to the user are still refused by the foreign keys.
+     */
+    void removeUser(Long userId);
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static ru.practicum.shareit.util.TransactionCallbacks.afterCommit;
+
+/**
+ * Keeps known user ids as bits of a {@link BitSet}, one bit per id up to the highest one. USERS.id is
+ * an INTEGER handed out in blocks of 50 from a sequence, dense but for the rest of the blocks
+ * left unused by restarts, so a million ids take about 125 KB.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserExistenceCacheImpl implements UserExistenceCache {
+
+    private final UserRepository userRepository;
+
+    private final BitSet knownIds = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /**
+     * Number of removals so far, incremented under the write lock. A user found in the database is
+     * remembered only if no user was removed meanwhile, since the lookup may have read a row whose
+     * deletion commits later.
+     */
+    private final AtomicLong removals = new AtomicLong();
+
+    @Override
+    public boolean exists(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        long removalsBefore = removals.get();
+        if (isKnown(userId)) {
+            return true;
+        }
+        boolean exists = userRepository.existsById(userId);
+        if (exists) {
+            remember(userId, removalsBefore);
+        }
+        return exists;
+    }
+
+    @Override
+    public void addUser(Long userId) {
+        afterCommit(() -> add(userId));
+    }
+
+    @Override
+    public void removeUser(Long userId) {
+        afterCommit(() -> forget(userId));
+    }
+
+    private boolean isKnown(Long userId) {
+        if (!fitsBitSet(userId)) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return knownIds.get(userId.intValue());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Long userId) {
+        if (!fitsBitSet(userId)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            knownIds.set(userId.intValue());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remember(Long userId, long removalsBefore) {
+        if (!fitsBitSet(userId)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (removals.get() == removalsBefore) {
+                knownIds.set(userId.intValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void forget(Long userId) {
+        lock.writeLock().lock();
+        try {
+            removals.incrementAndGet();
+            if (fitsBitSet(userId)) {
+                knownIds.clear(userId.intValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean fitsBitSet(Long userId) {
+        return userId >= 0 && userId <= Integer.MAX_VALUE;
+    }
+}
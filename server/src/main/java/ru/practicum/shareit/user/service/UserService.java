@@ -1,5 +1,7 @@
 package ru.practicum.shareit.user.service;
 
+import ru.practicum.shareit.bulk.BulkResult;
+import ru.practicum.shareit.bulk.BulkRow;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -9,6 +11,12 @@ public interface UserService {
 
     UserDto create(UserDto dto);
 
+    /**
+     * Creates users in one transaction with batched inserts. Invalid rows and emails already taken
+     * are reported in the results and skipped; a constraint violation fails the whole call.
+     */
+    List<BulkResult> createUsers(List<BulkRow<UserDto>> rows);
+
     List<UserDto> getAllUsers();
 
     UserDto update(UserDto dto);
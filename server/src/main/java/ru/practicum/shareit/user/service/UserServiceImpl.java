@@ -5,13 +5,24 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.bulk.BulkResult;
+import ru.practicum.shareit.bulk.BulkRow;
 import ru.practicum.shareit.error.ServiceException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.EmailView;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,6 +31,9 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final UserExistenceCache userExistenceCache;
+    private final EntityManager entityManager;
+    private final Validator validator;
 
     @Transactional(readOnly = true)
     @Override
@@ -31,7 +45,8 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserDto create(UserDto dto) {
         try {
-            User saved = userRepository.save(userMapper.mapToDomain(dto));
+            User saved = userRepository.saveAndFlush(userMapper.mapToDomain(dto));
+            userExistenceCache.addUser(saved.getId());
             return userMapper.mapToDto(saved);
         } catch (DataIntegrityViolationException ex) {
             String msg = "You have provided email that already exists. Please create new one.";
@@ -39,6 +54,44 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    /**
+     * Rows are checked against the constraints of {@link UserDto}, which the gateway applies to single
+     * requests. Taken emails are looked up once for the whole chunk. The persistence context is cleared
+     * after the flush: it may outlive the transaction and would otherwise grow with every chunk.
+     */
+    @Override
+    public List<BulkResult> createUsers(List<BulkRow<UserDto>> rows) {
+        Set<String> taken = userRepository.findAllByEmailIn(rows.stream()
+                        .map(row -> row.getValue().getEmail())
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .map(EmailView::getEmail)
+                .collect(Collectors.toCollection(HashSet::new));
+        List<BulkResult> results = new ArrayList<>(rows.size());
+        List<BulkRow<User>> toSave = new ArrayList<>(rows.size());
+        for (BulkRow<UserDto> row : rows) {
+            UserDto dto = row.getValue();
+            String error = validateNewUser(dto);
+            if (error != null) {
+                results.add(BulkResult.failed(row.getLine(), error));
+            } else if (!taken.add(dto.getEmail())) {
+                results.add(BulkResult.failed(row.getLine(), "Email already exists."));
+            } else {
+                dto.setId(null);
+                toSave.add(BulkRow.of(row.getLine(), userMapper.mapToDomain(dto)));
+            }
+        }
+        userRepository.saveAll(toSave.stream().map(BulkRow::getValue).collect(Collectors.toList()));
+        userRepository.flush();
+        for (BulkRow<User> row : toSave) {
+            userExistenceCache.addUser(row.getValue().getId());
+            results.add(BulkResult.created(row.getLine(), row.getValue().getId()));
+        }
+        entityManager.clear();
+        return results;
+    }
+
     @Transactional(readOnly = true)
     @Override
     public List<UserDto> getAllUsers() {
@@ -64,6 +117,22 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteById(long userId) {
         userRepository.deleteById(userId);
+        userExistenceCache.removeUser(userId);
+    }
+
+    /**
+     * @return messages of all violated constraints ordered by field or {@literal null} if there are none.
+     */
+    private String validateNewUser(UserDto dto) {
+        Set<ConstraintViolation<UserDto>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing((ConstraintViolation<UserDto> v) -> v.getPropertyPath().toString())
+                        .thenComparing(ConstraintViolation::getMessage))
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.joining(" "));
     }
 
     private User findByIdOrThrow(Long userId) {
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.util;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.regex.Pattern;
+
+@Configuration
+public class EtagFilterConfig {
+    private static final Pattern SINGLE_RESOURCE_PATH = Pattern.compile("/(items|users|requests)/\\d+");
+
+    /**
+     * Adds an ETag computed from the body to GET responses of single resources and answers
+     * 304 without a body when If-None-Match matches it, which is how the gateway revalidates its cache.
+     * The filter buffers the whole response to hash it, so listings, searches and bulk imports are left out.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new SingleResourceEtagFilter());
+        registration.addUrlPatterns("/items/*", "/users/*", "/requests/*");
+        return registration;
+    }
+
+    static class SingleResourceEtagFilter extends ShallowEtagHeaderFilter {
+
+        @Override
+        protected boolean shouldNotFilter(HttpServletRequest request) {
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+            return !HttpMethod.GET.matches(request.getMethod()) || !SINGLE_RESOURCE_PATH.matcher(path).matches();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.util;
+
+/**
+ * Entity ids come from a sequence per table, taken in blocks: one nextval returns the first id of a block
+ * of {@link #ALLOCATION_SIZE} ids (Hibernate pooled-lo optimizer) and the rest are handed out without a
+ * round trip. Ids known before the insert let Hibernate batch inserts, which IDENTITY columns prevent.
+ * Sequences in schema.sql are incremented by the same size.
+ */
+public final class SequenceIds {
+    public static final int ALLOCATION_SIZE = 50;
+
+    private SequenceIds() {
+    }
+}
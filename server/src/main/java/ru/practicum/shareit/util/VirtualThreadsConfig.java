@@ -0,0 +1,62 @@
+package ru.practicum.shareit.util;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs request handling and asynchronous responses such as NDJSON exports on virtual threads
+ * when {@code shareit.virtual-threads.enabled} is set, see the {@code virtual-threads} profile.
+ * A request then waits for a database connection instead of a Tomcat worker, so the connection
+ * pool rather than the worker pool bounds the work in progress.
+ * <p>
+ * The server is built for Java 11, so virtual threads are created reflectively and the mode
+ * needs a Java 21 or newer runtime.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "shareit.virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadsConfig implements WebMvcConfigurer, DisposableBean {
+    private final ExecutorService virtualThreadExecutor = newVirtualThreadPerTaskExecutor("request-");
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new ConcurrentTaskExecutor(virtualThreadExecutor));
+    }
+
+    /**
+     * Tomcat does not stop an executor it was given.
+     */
+    @Override
+    public void destroy() {
+        virtualThreadExecutor.shutdown();
+    }
+
+    static ExecutorService newVirtualThreadPerTaskExecutor(String namePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder$OfVirtual");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads need Java 21 or newer, the server runs on Java "
+                    + Runtime.version().feature() + ".", e);
+        }
+    }
+}
@@ -0,0 +1,2 @@
+-- H2 supports neither covering nor partial indexes, see schema-postgres.sql
+CREATE INDEX IF NOT EXISTS BOOKINGS_ITEM_ID_STATUS_START_DATE_IDX ON BOOKINGS(item_id, status, start_date);
@@ -0,0 +1,32 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ITEMS_NAME_TRGM_IDX ON ITEMS USING GIN (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS ITEMS_DESCRIPTION_TRGM_IDX ON ITEMS USING GIN (description gin_trgm_ops);
+
+-- last and next booking of an item and booking intervals, answered by index-only scans
+CREATE INDEX IF NOT EXISTS BOOKINGS_ITEM_ID_STATUS_START_DATE_IDX ON BOOKINGS(item_id, status, start_date) INCLUDE (id, booker_id);
+-- replaced by BOOKINGS_OWNER_ID_STATUS_START_DATE_IDX
+DROP INDEX IF EXISTS BOOKINGS_WAITING_ITEM_ID_START_DATE_IDX;
+
+-- databases created with identity ids are moved to the sequences once: a sequence continues after the largest id
+-- of its table, then the identity is dropped
+SELECT setval('users_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM users), false)
+WHERE EXISTS (SELECT 1 FROM information_schema.columns
+              WHERE table_schema = current_schema() AND table_name = 'users' AND column_name = 'id' AND is_identity = 'YES');
+ALTER TABLE USERS ALTER COLUMN id DROP IDENTITY IF EXISTS;
+SELECT setval('item_requests_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM item_requests), false)
+WHERE EXISTS (SELECT 1 FROM information_schema.columns
+              WHERE table_schema = current_schema() AND table_name = 'item_requests' AND column_name = 'id' AND is_identity = 'YES');
+ALTER TABLE ITEM_REQUESTS ALTER COLUMN id DROP IDENTITY IF EXISTS;
+SELECT setval('items_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM items), false)
+WHERE EXISTS (SELECT 1 FROM information_schema.columns
+              WHERE table_schema = current_schema() AND table_name = 'items' AND column_name = 'id' AND is_identity = 'YES');
+ALTER TABLE ITEMS ALTER COLUMN id DROP IDENTITY IF EXISTS;
+SELECT setval('bookings_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM bookings), false)
+WHERE EXISTS (SELECT 1 FROM information_schema.columns
+              WHERE table_schema = current_schema() AND table_name = 'bookings' AND column_name = 'id' AND is_identity = 'YES');
+ALTER TABLE BOOKINGS ALTER COLUMN id DROP IDENTITY IF EXISTS;
+SELECT setval('comments_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM comments), false)
+WHERE EXISTS (SELECT 1 FROM information_schema.columns
+              WHERE table_schema = current_schema() AND table_name = 'comments' AND column_name = 'id' AND is_identity = 'YES');
+ALTER TABLE COMMENTS ALTER COLUMN id DROP IDENTITY IF EXISTS;
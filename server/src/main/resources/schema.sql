@@ -1,5 +1,12 @@
+-- ids are allocated by Hibernate in blocks of 50, see SequenceIds
+CREATE SEQUENCE IF NOT EXISTS USERS_SEQ START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS ITEM_REQUESTS_SEQ START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS ITEMS_SEQ START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS BOOKINGS_SEQ START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS COMMENTS_SEQ START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS USERS (
-    id INTEGER GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id INTEGER PRIMARY KEY,
     name VARCHAR(50) NOT NULL,
     email VARCHAR(50) NOT NULL UNIQUE
 );
@@ -7,7 +14,7 @@ CREATE TABLE IF NOT EXISTS USERS (
 CREATE INDEX IF NOT EXISTS USERS_EMAIL_IDX ON Users(email);
 
 CREATE TABLE IF NOT EXISTS ITEM_REQUESTS (
-    id INTEGER GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id INTEGER PRIMARY KEY,
     description VARCHAR(2000) DEFAULT '' NOT NULL,
     requestor_id INTEGER NOT NULL,
     created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
@@ -17,7 +24,7 @@ CREATE TABLE IF NOT EXISTS ITEM_REQUESTS (
 CREATE INDEX IF NOT EXISTS ITEM_REQUESTS_REQUESTOR_ID_FK_IDX ON ITEM_REQUESTS(requestor_id);
 
 CREATE TABLE IF NOT EXISTS ITEMS(
-    id INTEGER GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id INTEGER PRIMARY KEY,
     owner_id INTEGER NOT NULL,
     name VARCHAR(100) NOT NULL,
     description VARCHAR(2000) NOT NULL,
@@ -31,21 +38,36 @@ CREATE INDEX IF NOT EXISTS ITEMS_OWNER_ID_FK_IDX ON ITEMS(owner_id);
 CREATE INDEX IF NOT EXISTS ITEMS_REQUEST_ID_FK_IDX ON ITEMS(request_id);
 
 CREATE TABLE IF NOT EXISTS BOOKINGS(
-    id INTEGER GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id INTEGER PRIMARY KEY,
     start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     item_id INTEGER NOT NULL,
     booker_id INTEGER NOT NULL,
     status VARCHAR(10),
+    owner_id INTEGER NOT NULL,
     CONSTRAINT BOOKINGS_BOOKER_ID_FK FOREIGN KEY(booker_id) REFERENCES USERS(id),
     CONSTRAINT BOOKINGS_ITEM_ID_FK FOREIGN KEY(item_id) REFERENCES ITEMS(id)
 );
 
-CREATE INDEX IF NOT EXISTS BOOKINGS_BOOKER_ID_FK_IDX ON BOOKINGS(booker_id);
-CREATE INDEX IF NOT EXISTS BOOKINGS_ITEM_ID_FK_IDX ON BOOKINGS(item_id);
+-- owner_id is a copy of items.owner_id, added to databases created before it
+ALTER TABLE BOOKINGS ADD COLUMN IF NOT EXISTS owner_id INTEGER;
+UPDATE BOOKINGS b SET owner_id = (SELECT i.owner_id FROM ITEMS i WHERE i.id = b.item_id) WHERE b.owner_id IS NULL;
+ALTER TABLE BOOKINGS ALTER COLUMN owner_id SET NOT NULL;
+
+-- single column indexes are prefixes of the composite ones below
+DROP INDEX IF EXISTS BOOKINGS_BOOKER_ID_FK_IDX;
+DROP INDEX IF EXISTS BOOKINGS_ITEM_ID_FK_IDX;
+DROP INDEX IF EXISTS BOOKINGS_ITEM_ID_START_DATE_IDX;
+-- booker listings ALL, CURRENT, PAST and FUTURE read it in the order of the result, so LIMIT stops the scan early
+CREATE INDEX IF NOT EXISTS BOOKINGS_BOOKER_ID_START_DATE_IDX ON BOOKINGS(booker_id, start_date DESC, id DESC);
+-- booker listings WAITING and REJECTED
+CREATE INDEX IF NOT EXISTS BOOKINGS_BOOKER_ID_STATUS_START_DATE_IDX ON BOOKINGS(booker_id, status, start_date DESC, id DESC);
+-- owner listings, same as the booker ones
+CREATE INDEX IF NOT EXISTS BOOKINGS_OWNER_ID_START_DATE_IDX ON BOOKINGS(owner_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS BOOKINGS_OWNER_ID_STATUS_START_DATE_IDX ON BOOKINGS(owner_id, status, start_date DESC, id DESC);
 
 CREATE TABLE IF NOT EXISTS COMMENTS(
-    id INTEGER GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    id INTEGER PRIMARY KEY,
     text VARCHAR(2000) NOT NULL,
     item_id INTEGER NOT NULL,
     author_id INTEGER NOT NULL,
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.dto;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.error.ServiceException;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static ru.practicum.shareit.testutil.TestDataProvider.getBooking;
+
+class BookingCursorTest {
+
+    @Test
+    void decode_whenTokenEncodedFromBooking_returnsSamePosition() {
+        Booking booking = getBooking();
+
+        BookingCursor cursor = BookingCursor.decode(BookingCursor.of(booking).encode());
+
+        assertThat(cursor.getStart()).isEqualTo(booking.getStart());
+        assertThat(cursor.getId()).isEqualTo(booking.getId());
+    }
+
+    @Test
+    void decode_whenTokenMalformed_throws() {
+        assertThrows(ServiceException.class, () -> BookingCursor.decode("not-a-cursor"));
+    }
+
+}
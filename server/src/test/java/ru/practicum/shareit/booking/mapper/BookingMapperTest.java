@@ -13,6 +13,7 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.util.Optional;
 
@@ -26,6 +27,8 @@ class BookingMapperTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserExistenceCache userExistenceCache;
+    @Mock
     private ItemRepository itemRepository;
     @InjectMocks
     private BookingMapper mapper;
@@ -36,7 +39,9 @@ class BookingMapperTest {
         Item item = getAvailableItemWithoutBookings();
         BookingRequest dto = getBookingRequest(item.getId(), user.getId());
         Mockito
-                .when(userRepository.findById(dto.getBookerId())).thenReturn(Optional.of(user));
+                .when(userExistenceCache.exists(dto.getBookerId())).thenReturn(true);
+        Mockito
+                .when(userRepository.getReferenceById(dto.getBookerId())).thenReturn(user);
         Mockito
                 .when(itemRepository.findByIdOwnerFetched(dto.getItemId())).thenReturn(Optional.of(item));
         Booking expected = Booking
@@ -57,7 +62,9 @@ class BookingMapperTest {
     void mapToDomain_whenItemNotFound_throws() {
         BookingRequest dto = getBookingRequest(10L, 10L);
         Mockito
-                .when(userRepository.findById(dto.getBookerId())).thenReturn(Optional.of(new User()));
+                .when(userExistenceCache.exists(dto.getBookerId())).thenReturn(true);
+        Mockito
+                .when(userRepository.getReferenceById(dto.getBookerId())).thenReturn(new User());
         Mockito
                 .when(itemRepository.findByIdOwnerFetched(dto.getItemId())).thenReturn(Optional.empty());
         assertThrows(ServiceException.class, () -> mapper.mapToDomain(dto));
@@ -67,7 +74,7 @@ class BookingMapperTest {
     void mapToDomain_whenUserNotFound_throws() {
         BookingRequest dto = getBookingRequest(10L, 10L);
         Mockito
-                .when(userRepository.findById(dto.getBookerId())).thenReturn(Optional.empty());
+                .when(userExistenceCache.exists(dto.getBookerId())).thenReturn(false);
 
         assertThrows(ServiceException.class, () -> mapper.mapToDomain(dto));
     }
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.BaseJpaTest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the booking indexes: fails when Postgres can answer a query shape of
+ * {@link BookingRepository} only by a sequential scan or has to sort the whole
+ * per-user set before LIMIT. Queries mirror the SQL Hibernate generates for them.
+ */
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingQueryPlanTest extends BaseJpaTest {
+
+    private static final String BOOKINGS_OF_BOOKER = "select b.* from bookings b " +
+            "join items i on b.item_id = i.id join users u on b.booker_id = u.id where u.id = 1 ";
+    private static final String BOOKINGS_OF_OWNER = "select b.* from bookings b " +
+            "join items i on b.item_id = i.id join users u on b.booker_id = u.id where b.owner_id = 1 ";
+    private static final String ORDER_AND_LIMIT = " order by b.start_date desc, b.id desc limit 20";
+    private static final String NOW = "timestamp '2023-06-01 12:00:00'";
+
+    private final TestEntityManager em;
+
+    @BeforeEach
+    void disableSeqScan() {
+        // tables are almost empty, so without it a sequential scan is always the cheapest plan
+        em.getEntityManager().createNativeQuery("set local enable_seqscan = off").executeUpdate();
+    }
+
+    @Test
+    void bookingsOfBooker_whenAll_readsIndexInResultOrder() {
+        assertIndexOrdered(BOOKINGS_OF_BOOKER + ORDER_AND_LIMIT);
+    }
+
+    @Test
+    void bookingsOfBooker_whenCurrent_readsIndexInResultOrder() {
+        assertIndexOrdered(BOOKINGS_OF_BOOKER +
+                "and b.start_date < " + NOW + " and b.end_date > " + NOW + ORDER_AND_LIMIT);
+    }
+
+    @Test
+    void bookingsOfBooker_whenPast_readsIndexInResultOrder() {
+        assertIndexOrdered(BOOKINGS_OF_BOOKER + "and b.end_date < " + NOW + ORDER_AND_LIMIT);
+    }
+
+    @Test
+    void bookingsOfBooker_whenFuture_readsIndexInResultOrder() {
+        assertIndexOrdered(BOOKINGS_OF_BOOKER + "and b.start_date > " + NOW + ORDER_AND_LIMIT);
+    }
+
+    @Test
+    void bookingsOfBooker_whenWaiting_readsIndexInResultOrder() {
+        assertIndexOrdered(BOOKINGS_OF_BOOKER + "and b.status = 'WAITING'" + ORDER_AND_LIMIT);
+    }
+
+    @Test
+    void bookingsOfBooker_whenRejected_readsIndexInResultOrder() {
+        assertIndexOrdered(BOOKINGS_OF_BOOKER + "and b.status = 'REJECTED'" + ORDER_AND_LIMIT);
+    }
+
+    @Test
+    void bookingsOfBooker_whenAfterCursor_readsIndexInResultOrder() {
+        assertIndexOrdered(BOOKINGS_OF_BOOKER + "and (b.start_date < " + NOW +
+                " or (b.start_date = " + NOW + " and b.id < 100))" + ORDER_AND_LIMIT);
+    }
+
+    @Test
+    void bookingsOfOwner_whenAll_readsIndexInResultOrder() {
+        assertIndexOrdered(BOOKINGS_OF_OWNER + ORDER_AND_LIMIT);
+    }
+
+    @Test
+    void bookingsOfOwner_whenCurrent_readsIndexInResultOrder() {
+        assertIndexOrdered(BOOKINGS_OF_OWNER +
+                "and b.start_date < " + NOW + " and b.end_date > " + NOW + ORDER_AND_LIMIT);
+    }
+
+    @Test
+    void bookingsOfOwner_whenFuture_readsIndexInResultOrder() {
+        assertIndexOrdered(BOOKINGS_OF_OWNER + "and b.start_date > " + NOW + ORDER_AND_LIMIT);
+    }
+
+    @Test
+    void bookingsOfOwner_whenWaiting_readsIndexInResultOrder() {
+        assertIndexOrdered(BOOKINGS_OF_OWNER + "and b.status = 'WAITING'" + ORDER_AND_LIMIT);
+    }
+
+    @Test
+    void bookingsOfOwner_whenAfterCursor_readsIndexInResultOrder() {
+        assertIndexOrdered(BOOKINGS_OF_OWNER + "and (b.start_date < " + NOW +
+                " or (b.start_date = " + NOW + " and b.id < 100))" + ORDER_AND_LIMIT);
+    }
+
+    @Test
+    void lastBookingOfItem_readsIndexInResultOrder() {
+        assertIndexOrdered("select b.id, b.booker_id, b.item_id, b.start_date from bookings b " +
+                "where b.item_id = 1 and b.status = 'APPROVED' and b.start_date < " + NOW +
+                " order by b.start_date desc limit 1");
+    }
+
+    @Test
+    void nextBookingOfItem_usesIndex() {
+        assertIndexed("select b.id, b.booker_id, b.item_id, b.start_date from bookings b " +
+                "where b.item_id = 1 and b.status in ('WAITING', 'APPROVED') and b.start_date > " + NOW +
+                " order by b.start_date asc limit 1");
+    }
+
+    @Test
+    void intervalsOfItem_usesIndex() {
+        assertIndexed("select b.id, b.start_date, b.end_date from bookings b " +
+                "where b.item_id = 1 and b.status = 'APPROVED' and b.end_date > " + NOW);
+    }
+
+    private void assertIndexOrdered(String sql) {
+        String plan = explain(sql);
+        assertThat(plan).as(plan).doesNotContain("Seq Scan on bookings");
+        assertThat(plan).as(plan).doesNotContain("Sort");
+    }
+
+    private void assertIndexed(String sql) {
+        String plan = explain(sql);
+        assertThat(plan).as(plan).doesNotContain("Seq Scan on bookings");
+    }
+
+    @SuppressWarnings("unchecked")
+    private String explain(String sql) {
+        List<String> lines = em.getEntityManager().createNativeQuery("explain " + sql).getResultList();
+        return lines.stream().collect(Collectors.joining(System.lineSeparator()));
+    }
+}
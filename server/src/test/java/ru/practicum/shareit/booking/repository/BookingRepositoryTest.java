@@ -29,7 +29,7 @@ class BookingRepositoryTest extends BaseJpaTest {
     private final TestEntityManager em;
 
     @Test
-    void findAllByItemOwnerIdAndStartAfterOrderByStartDesc_returnsCorrectList() {
+    void findAllByOwnerIdAndStartAfterOrderByStartDesc_returnsCorrectList() {
         User booker = getMockUser(null);
         booker.setEmail("booker@email.com");
         booker = em.persistAndFlush(booker);
@@ -57,7 +57,7 @@ class BookingRepositoryTest extends BaseJpaTest {
                 BOOKING_START.plusDays(11));
 
         List<Booking> bookings = bookingRepository
-                .findAllByItemOwnerIdAndStartAfterOrderByStartDesc(owner.getId(),
+                .findAllByOwnerIdAndStartAfterOrderByStartDesc(owner.getId(),
                         BOOKING_START,
                         PageRequest.of(0, 10));
 
@@ -67,7 +67,7 @@ class BookingRepositoryTest extends BaseJpaTest {
     }
 
     @Test
-    void findAllByItemOwnerIdAndEndBeforeOrderByStartDesc_returnsCorrectList() {
+    void findAllByOwnerIdAndEndBeforeOrderByStartDesc_returnsCorrectList() {
         User booker = getMockUser(null);
         booker.setEmail("booker@email.com");
         booker = em.persistAndFlush(booker);
@@ -95,7 +95,7 @@ class BookingRepositoryTest extends BaseJpaTest {
                 BOOKING_START.minusDays(1));
 
         List<Booking> bookings = bookingRepository
-                .findAllByItemOwnerIdAndEndBeforeOrderByStartDesc(owner.getId(),
+                .findAllByOwnerIdAndEndBeforeOrderByStartDesc(owner.getId(),
                         BOOKING_START,
                         PageRequest.of(0, 10));
 
@@ -105,7 +105,7 @@ class BookingRepositoryTest extends BaseJpaTest {
     }
 
     @Test
-    void findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc_returnsCorrectList() {
+    void findAllByOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc_returnsCorrectList() {
         User booker = getMockUser(null);
         booker.setEmail("booker@email.com");
         booker = em.persistAndFlush(booker);
@@ -133,7 +133,7 @@ class BookingRepositoryTest extends BaseJpaTest {
                 BOOKING_END.plusDays(3));
 
         List<Booking> bookings = bookingRepository
-                .findAllByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(owner.getId(),
+                .findAllByOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(owner.getId(),
                         BOOKING_START,
                         BOOKING_START,
                         PageRequest.of(0, 10));
@@ -144,7 +144,7 @@ class BookingRepositoryTest extends BaseJpaTest {
     }
 
     @Test
-    void findAllByItemOwnerIdAndStatusOrderByStartDesc_returnsCorrectList() {
+    void findAllByOwnerIdAndStatusOrderByStartDesc_returnsCorrectList() {
         User booker = getMockUser(null);
         booker.setEmail("booker@email.com");
         booker = em.persistAndFlush(booker);
@@ -169,7 +169,7 @@ class BookingRepositoryTest extends BaseJpaTest {
                 BOOKING_END.plusDays(1));
 
         List<Booking> bookings = bookingRepository
-                .findAllByItemOwnerIdAndStatusOrderByStartDesc(owner.getId(),
+                .findAllByOwnerIdAndStatusOrderByStartDesc(owner.getId(),
                         APPROVED,
                         PageRequest.of(0, 10));
 
@@ -179,7 +179,7 @@ class BookingRepositoryTest extends BaseJpaTest {
     }
 
     @Test
-    void findAllByItemOwnerIdOrderByStartDesc_returnsCorrectList() {
+    void findAllByOwnerIdOrderByStartDesc_returnsCorrectList() {
         User booker = getMockUser(null);
         booker.setEmail("booker@email.com");
         booker = em.persistAndFlush(booker);
@@ -206,7 +206,7 @@ class BookingRepositoryTest extends BaseJpaTest {
         );
 
         List<Booking> bookings = bookingRepository
-                .findAllByItemOwnerIdOrderByStartDesc(owner.getId(), PageRequest.of(0, 10));
+                .findAllByOwnerIdOrderByStartDesc(owner.getId(), PageRequest.of(0, 10));
 
         assertThat(bookings).hasSize(2);
         assertThat(bookings.get(0).getId()).isEqualTo(two.getId());
@@ -363,6 +363,45 @@ class BookingRepositoryTest extends BaseJpaTest {
         assertThat(bookings.get(1).getId()).isEqualTo(one.getId());
     }
 
+    @Test
+    void findAllByBookerIdOrderByStartDescAfterCursor_returnsBookingsAfterCursor() {
+        User booker = getMockUser(null);
+        booker.setEmail("booker@email.com");
+        booker = em.persistAndFlush(booker);
+        User owner = getMockUser(null);
+        owner = em.persistAndFlush(owner);
+
+        Item itemOne = saveAndReturnItem(owner);
+        Item itemTwo = saveAndReturnItem(owner);
+        Item itemThree = saveAndReturnItem(owner);
+
+        Booking one = saveAndReturnBooking(booker, itemOne, APPROVED, BOOKING_START, BOOKING_END);
+        Booking two = saveAndReturnBooking(booker, itemTwo, APPROVED, BOOKING_START, BOOKING_END);
+        Booking three = saveAndReturnBooking(booker,
+                itemThree,
+                APPROVED,
+                BOOKING_START.plusDays(1),
+                BOOKING_END.plusDays(1));
+
+        List<Booking> bookings = bookingRepository
+                .findAllByBookerIdOrderByStartDescAfterCursor(booker.getId(),
+                        three.getStart(),
+                        three.getId(),
+                        PageRequest.of(0, 1));
+
+        assertThat(bookings).hasSize(1);
+        assertThat(bookings.get(0).getId()).isEqualTo(two.getId());
+
+        bookings = bookingRepository
+                .findAllByBookerIdOrderByStartDescAfterCursor(booker.getId(),
+                        two.getStart(),
+                        two.getId(),
+                        PageRequest.of(0, 10));
+
+        assertThat(bookings).hasSize(1);
+        assertThat(bookings.get(0).getId()).isEqualTo(one.getId());
+    }
+
     @Test
     void findAllByBookerIdOrderByStartDesc_returnsCorrectList() {
         User booker = getMockUser(null);
@@ -398,6 +437,20 @@ class BookingRepositoryTest extends BaseJpaTest {
         assertThat(bookings.get(1).getId()).isEqualTo(one.getId());
     }
 
+    @Test
+    void persist_copiesOwnerOfItem() {
+        User booker = getMockUser(null);
+        booker.setEmail("booker@email.com");
+        booker = em.persistAndFlush(booker);
+        User owner = getMockUser(null);
+        owner = em.persistAndFlush(owner);
+        Item item = saveAndReturnItem(owner);
+
+        Booking booking = saveAndReturnBooking(booker, item, APPROVED, BOOKING_START, BOOKING_END);
+
+        assertThat(booking.getOwnerId()).isEqualTo(owner.getId());
+    }
+
     private Booking saveAndReturnBooking(User booker,
                                          Item item,
                                          BookingStatus status,
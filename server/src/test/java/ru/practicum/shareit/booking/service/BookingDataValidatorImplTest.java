@@ -8,11 +8,14 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.error.ServiceException;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static ru.practicum.shareit.testutil.TestConstants.ITEM_ID;
 import static ru.practicum.shareit.testutil.TestDataProvider.*;
@@ -21,7 +24,13 @@ import static ru.practicum.shareit.testutil.TestDataProvider.*;
 class BookingDataValidatorImplTest {
 
     @Mock
-    private UserRepository userRepository;
+    private UserExistenceCache userExistenceCache;
+    @Mock
+    private ItemRepository itemRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
     @InjectMocks
     private BookingDataValidatorImpl dataValidator;
 
@@ -64,7 +73,7 @@ class BookingDataValidatorImplTest {
     void throwIfUserNotExists_throws() {
         Long bookerId = 10L;
         Mockito
-                .when(userRepository.existsById(bookerId))
+                .when(userExistenceCache.exists(bookerId))
                 .thenReturn(false);
 
         assertThrows(ServiceException.class,
@@ -96,4 +105,81 @@ class BookingDataValidatorImplTest {
         );
     }
 
-}
\ No newline at end of file
+    @Test
+    void throwIfIntervalNotFree_whenDatabaseConfirmsIndexOverlap_throws() {
+        Booking booking = getBooking();
+        Long itemId = booking.getItem().getId();
+        Mockito
+                .when(bookingIntervalIndex.isFree(itemId, booking.getStart(), booking.getEnd()))
+                .thenReturn(false);
+        Mockito
+                .when(bookingRepository.existsOverlapping(itemId,
+                        BookingStatus.APPROVED,
+                        booking.getStart(),
+                        booking.getEnd()))
+                .thenReturn(true);
+
+        assertThrows(ServiceException.class, () -> dataValidator.throwIfIntervalNotFree(booking));
+    }
+
+    @Test
+    void throwIfIntervalNotFree_whenOnlyIndexHasOverlap_passes() {
+        Booking booking = getBooking();
+        Long itemId = booking.getItem().getId();
+        Mockito
+                .when(bookingIntervalIndex.isFree(itemId, booking.getStart(), booking.getEnd()))
+                .thenReturn(false);
+        Mockito
+                .when(bookingRepository.existsOverlapping(itemId,
+                        BookingStatus.APPROVED,
+                        booking.getStart(),
+                        booking.getEnd()))
+                .thenReturn(false);
+
+        assertDoesNotThrow(() -> dataValidator.throwIfIntervalNotFree(booking));
+    }
+
+    @Test
+    void throwIfIntervalNotFree_whenIndexIsFree_doesNotQueryDatabase() {
+        Booking booking = getBooking();
+        Mockito
+                .when(bookingIntervalIndex.isFree(booking.getItem().getId(), booking.getStart(), booking.getEnd()))
+                .thenReturn(true);
+
+        assertDoesNotThrow(() -> dataValidator.throwIfIntervalNotFree(booking));
+        Mockito.verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void throwIfIntervalNotFreeLocked_whenDatabaseHasOverlap_throws() {
+        Booking booking = getBooking();
+        Long itemId = booking.getItem().getId();
+        Mockito
+                .when(bookingRepository.existsOverlapping(itemId,
+                        BookingStatus.APPROVED,
+                        booking.getStart(),
+                        booking.getEnd(),
+                        booking.getId()))
+                .thenReturn(true);
+
+        assertThrows(ServiceException.class, () -> dataValidator.throwIfIntervalNotFreeLocked(booking));
+        Mockito.verify(itemRepository).lockById(itemId);
+    }
+
+    @Test
+    void throwIfIntervalNotFreeLocked_whenOnlyIndexHasOverlap_passes() {
+        Booking booking = getBooking();
+        Long itemId = booking.getItem().getId();
+        Mockito
+                .when(bookingRepository.existsOverlapping(itemId,
+                        BookingStatus.APPROVED,
+                        booking.getStart(),
+                        booking.getEnd(),
+                        booking.getId()))
+                .thenReturn(false);
+
+        assertDoesNotThrow(() -> dataValidator.throwIfIntervalNotFreeLocked(booking));
+        Mockito.verifyNoInteractions(bookingIntervalIndex);
+    }
+
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static ru.practicum.shareit.testutil.TestConstants.ITEM_ID;
+import static ru.practicum.shareit.testutil.TestDataProvider.getBooking;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexImplTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    @Mock
+    private BookingRepository bookingRepository;
+    private final AtomicLong nanos = new AtomicLong();
+    private BookingIntervalIndexImpl index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookingIntervalIndexImpl(bookingRepository, 100, TTL, nanos::get);
+    }
+
+    @Test
+    void isFree_whenIntervalIntersectsApprovedBooking_returnsFalse() {
+        mockNoApprovedBookings();
+        Booking booking = getBooking();
+        loadIntervals();
+        index.addApproved(booking);
+
+        assertThat(index.isFree(ITEM_ID, booking.getStart().minusHours(1), booking.getStart().plusHours(1))).isFalse();
+        assertThat(index.isFree(ITEM_ID, booking.getEnd().minusHours(1), booking.getEnd().plusHours(1))).isFalse();
+        assertThat(index.isFree(ITEM_ID, booking.getStart().plusHours(1), booking.getEnd().minusHours(1))).isFalse();
+    }
+
+    @Test
+    void isFree_whenIntervalTouchesApprovedBooking_returnsTrue() {
+        mockNoApprovedBookings();
+        Booking booking = getBooking();
+        loadIntervals();
+        index.addApproved(booking);
+
+        assertThat(index.isFree(ITEM_ID, booking.getEnd(), booking.getEnd().plusDays(1))).isTrue();
+        assertThat(index.isFree(ITEM_ID, booking.getStart().minusDays(1), booking.getStart())).isTrue();
+        assertThat(index.isFree(ITEM_ID + 1, booking.getStart(), booking.getEnd())).isTrue();
+    }
+
+    @Test
+    void isFree_whenApprovedBookingRemoved_returnsTrue() {
+        mockNoApprovedBookings();
+        Booking booking = getBooking();
+        loadIntervals();
+        index.addApproved(booking);
+        index.removeApproved(booking);
+
+        assertThat(index.isFree(ITEM_ID, booking.getStart(), booking.getEnd())).isTrue();
+    }
+
+    @Test
+    void isFree_afterTtl_reloadsIntervals() {
+        mockNoApprovedBookings();
+        Booking booking = getBooking();
+        loadIntervals();
+        index.addApproved(booking);
+
+        nanos.addAndGet(TTL.toNanos());
+
+        assertThat(index.isFree(ITEM_ID, booking.getStart(), booking.getEnd())).isTrue();
+        Mockito.verify(bookingRepository, Mockito.times(2)).findIntervalsByItemIdAndStatusEndingAfter(
+                Mockito.eq(ITEM_ID), Mockito.eq(BookingStatus.APPROVED), any(LocalDateTime.class));
+    }
+
+    @Test
+    void addApproved_whenIntervalsNotLoaded_doesNotLoadThem() {
+        index.addApproved(getBooking());
+
+        Mockito.verifyNoInteractions(bookingRepository);
+    }
+
+    private void loadIntervals() {
+        index.isFree(ITEM_ID, LocalDateTime.MIN, LocalDateTime.MIN);
+    }
+
+    private void mockNoApprovedBookings() {
+        Mockito
+                .when(bookingRepository.findIntervalsByItemIdAndStatusEndingAfter(
+                        Mockito.eq(ITEM_ID), Mockito.eq(BookingStatus.APPROVED), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+    }
+}
@@ -6,15 +6,23 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingResponse;
+import ru.practicum.shareit.booking.dto.BookingStateDto;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.error.ServiceException;
 
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -32,9 +40,34 @@ class BookingServiceImplTest {
     private BookingDataValidator bookingDataValidator;
     @Mock
     private UserBookingsProcessor userBookingsProcessor;
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+    @Mock
+    private EntityManager entityManager;
     @InjectMocks
     private BookingServiceImpl bookingService;
 
+    @Test
+    void forEachBookingOfOwner_passesAllBookingsAndClearsContextPerFetchedBlock() {
+        int count = BookingRepository.EXPORT_FETCH_SIZE * 2 + 1;
+        Booking booking = getBooking();
+        AtomicBoolean closed = new AtomicBoolean();
+        Mockito
+                .when(bookingRepository.streamAllByOwnerId(OWNER_ID))
+                .thenReturn(Stream.generate(() -> booking).limit(count).onClose(() -> closed.set(true)));
+        BookingResponse response = fromBooking(booking);
+        Mockito
+                .when(mapper.mapToDto(booking)).thenReturn(response);
+        List<BookingResponse> exported = new ArrayList<>();
+
+        bookingService.forEachBookingOfOwner(OWNER_ID, exported::add);
+
+        assertThat(exported).hasSize(count).containsOnly(response);
+        assertThat(closed.get()).isTrue();
+        Mockito.verify(bookingDataValidator).throwIfUserNotExists(OWNER_ID);
+        Mockito.verify(entityManager, Mockito.times(2)).clear();
+    }
+
     @Test
     void getBookingById_whenUserIsBooker_returnsBooking() {
         Booking booking = getBooking();
@@ -128,6 +161,7 @@ class BookingServiceImplTest {
 
         BookingResponse actual = bookingService.updateApproved(OWNER_ID, dto.getId(), true);
         assertThat(actual).isEqualTo(expected);
+        Mockito.verify(bookingIntervalIndex).addApproved(booking);
     }
 
     @Test
@@ -162,6 +196,19 @@ class BookingServiceImplTest {
         assertThat(actual).isEqualTo(expected);
     }
 
+    @Test
+    void createBooking_whenIntervalAlreadyBooked_throws() {
+        BookingRequest dto = getBookingRequest(ITEM_ID, BOOKER_ID);
+        Booking domain = getBooking();
+        Mockito
+                .when(mapper.mapToDomain(dto)).thenReturn(domain);
+        Mockito
+                .doThrow(ServiceException.class)
+                .when(bookingDataValidator).throwIfIntervalNotFree(domain);
+        assertThrows(ServiceException.class, () -> bookingService.createBooking(dto));
+        Mockito.verify(bookingRepository, Mockito.never()).save(domain);
+    }
+
     @Test
     void createBooking_whenItemOwnerIsTheBooker_throws() {
         BookingRequest dto = getBookingRequest(ITEM_ID, BOOKER_ID);
@@ -186,4 +233,35 @@ class BookingServiceImplTest {
         assertThrows(ServiceException.class, () -> bookingService.createBooking(dto));
     }
 
-}
\ No newline at end of file
+    @Test
+    void getBookingsOfOwnerPage_whenPageIsFull_returnsCursorOfLastBooking() {
+        Booking first = getNextBooking();
+        first.setId(BOOKING_ID + 1);
+        Booking last = getBooking();
+        BookingCursor cursor = BookingCursor.of(getNextBooking());
+        Mockito
+                .when(userBookingsProcessor.getAllBookingsOfUserAfterCursor(
+                        true, OWNER_ID, BookingStateDto.ALL, cursor, 2))
+                .thenReturn(List.of(first, last));
+
+        BookingPage page = bookingService.getBookingsOfOwnerPage(OWNER_ID, BookingStateDto.ALL, cursor.encode(), 2);
+
+        assertThat(page.getBookings()).hasSize(2);
+        assertThat(page.getNextCursor()).isEqualTo(BookingCursor.of(last).encode());
+    }
+
+    @Test
+    void getBookingsOfUserPage_whenPageIsNotFull_returnsNoCursor() {
+        Booking booking = getBooking();
+        Mockito
+                .when(userBookingsProcessor.getAllBookingsOfUserAfterCursor(
+                        false, BOOKER_ID, BookingStateDto.ALL, null, 2))
+                .thenReturn(List.of(booking));
+
+        BookingPage page = bookingService.getBookingsOfUserPage(BOOKER_ID, BookingStateDto.ALL, "", 2);
+
+        assertThat(page.getBookings()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+}
@@ -0,0 +1,100 @@
+package ru.practicum.shareit.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NdjsonImporterTest {
+
+    static final int CHUNK_SIZE = 100;
+    static final int LINES = 10_000;
+
+    NdjsonImporter importer = new NdjsonImporter(new ObjectMapper(), CHUNK_SIZE);
+
+    @Test
+    void importRows_writesResultsOfEachChunkBeforeReadingTheRest() throws Exception {
+        byte[] request = ndjson(LINES);
+        CountingInputStream body = new CountingInputStream(request);
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        List<Integer> readAtChunk = new ArrayList<>();
+        List<Integer> writtenAtChunk = new ArrayList<>();
+
+        importer.importRows(body, Row.class, chunk -> {
+            readAtChunk.add(body.read);
+            writtenAtChunk.add(response.size());
+            return chunk.stream()
+                    .map(row -> BulkResult.created(row.getLine(), (long) row.getLine()))
+                    .collect(Collectors.toList());
+        }).writeTo(response);
+
+        assertThat(readAtChunk).hasSize(LINES / CHUNK_SIZE);
+        assertThat(readAtChunk.get(0)).isLessThan(request.length / 10);
+        assertThat(writtenAtChunk.get(0)).isZero();
+        assertThat(writtenAtChunk.get(1)).isPositive();
+        assertThat(response.toString(StandardCharsets.UTF_8).lines()).hasSize(LINES);
+    }
+
+    @Test
+    void importRows_reportsMalformedLinesInOrder() throws Exception {
+        byte[] request = "{\"name\":\"a\"}\nnot json\n\n{\"name\":\"b\"}\n".getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+
+        importer.importRows(new ByteArrayInputStream(request), Row.class, chunk -> chunk.stream()
+                .map(row -> BulkResult.created(row.getLine(), (long) row.getLine()))
+                .collect(Collectors.toList())).writeTo(response);
+
+        List<String> results = response.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0)).contains("\"line\":1").contains("\"id\":1");
+        assertThat(results.get(1)).contains("\"line\":2").contains("\"error\"");
+        assertThat(results.get(2)).contains("\"line\":4").contains("\"id\":4");
+    }
+
+    private static byte[] ndjson(int lines) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 1; i <= lines; i++) {
+            builder.append("{\"name\":\"row ").append(i).append("\"}\n");
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static class Row {
+        public String name;
+    }
+
+    static class CountingInputStream extends InputStream {
+        private final ByteArrayInputStream in;
+        int read;
+
+        CountingInputStream(byte[] bytes) {
+            this.in = new ByteArrayInputStream(bytes);
+        }
+
+        @Override
+        public int read() {
+            int b = in.read();
+            if (b >= 0) {
+                read++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            int n = in.read(buffer, offset, length);
+            if (n > 0) {
+                read += n;
+            }
+            return n;
+        }
+    }
+}
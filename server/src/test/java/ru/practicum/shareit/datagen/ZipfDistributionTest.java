@@ -0,0 +1,60 @@
+package ru.practicum.shareit.datagen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ZipfDistributionTest {
+
+    private static final int SAMPLES = 100_000;
+
+    @Test
+    void sample_whenExponentIsZero_isUniform() {
+        int[] counts = sample(new ZipfDistribution(10, 0));
+
+        for (int count : counts) {
+            assertThat(count).isBetween(SAMPLES / 10 - 1_000, SAMPLES / 10 + 1_000);
+        }
+    }
+
+    @Test
+    void sample_whenExponentIsPositive_favoursFirstRanks() {
+        int[] counts = sample(new ZipfDistribution(1_000, 1.1));
+
+        int firstTen = 0;
+        for (int i = 0; i < 10; i++) {
+            firstTen += counts[i];
+        }
+        assertThat(counts[0]).isGreaterThan(counts[1]);
+        assertThat(counts[1]).isGreaterThan(counts[10]);
+        // uniform distribution would give 1%
+        assertThat(firstTen).isGreaterThan(SAMPLES / 3);
+    }
+
+    @Test
+    void sample_whenSingleRank_alwaysReturnsIt() {
+        ZipfDistribution zipf = new ZipfDistribution(1, 1.0);
+        Random random = new Random(1);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(zipf.sample(random)).isZero();
+        }
+    }
+
+    @Test
+    void create_whenSizeNotPositive_throws() {
+        assertThrows(IllegalArgumentException.class, () -> new ZipfDistribution(0, 1.0));
+    }
+
+    private int[] sample(ZipfDistribution zipf) {
+        Random random = new Random(42);
+        int[] counts = new int[zipf.size()];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[zipf.sample(random)]++;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadReplicaRoutingDataSourceTest {
+    private static final String LAG_QUERY = "SELECT lag";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Connection primaryConnection = mock(Connection.class);
+    private final DataSource primary = mock(DataSource.class);
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void getConnection_routesReadOnlyTransactionsToReplicasRoundRobin() throws SQLException {
+        Connection first = mock(Connection.class);
+        Connection second = mock(Connection.class);
+        ReadReplicaRoutingDataSource dataSource = routingDataSource(replica(first, 0.1), replica(second, 0.2));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(first);
+        assertThat(dataSource.getConnection()).isSameAs(second);
+        assertThat(dataSource.getConnection()).isSameAs(first);
+        assertThat(meterRegistry.get("shareit.read-replica.connections").tag("replica", "replica-1")
+                .functionCounter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void getConnection_routesWritesToPrimary() throws SQLException {
+        ReadReplicaRoutingDataSource dataSource = routingDataSource(replica(mock(Connection.class), 0));
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void getConnection_skipsReplicaLaggingTooFarBehind() throws SQLException {
+        Connection upToDate = mock(Connection.class);
+        ReadReplicaRoutingDataSource dataSource = routingDataSource(replica(mock(Connection.class), 60), replica(upToDate, 1));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(upToDate);
+        assertThat(dataSource.getConnection()).isSameAs(upToDate);
+        assertThat(meterRegistry.get("shareit.read-replica.lag").tag("replica", "replica-1").gauge().value())
+                .isEqualTo(60.0);
+    }
+
+    @Test
+    void getConnection_skipsReplicaReportingNoLag() throws SQLException {
+        Connection unknownLag = mock(Connection.class);
+        DataSource replica = replica(unknownLag, 0);
+        when(unknownLag.createStatement().executeQuery(LAG_QUERY).wasNull()).thenReturn(true);
+        ReadReplicaRoutingDataSource dataSource = routingDataSource(replica);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(meterRegistry.get("shareit.read-replica.available").tag("replica", "replica-1").gauge().value())
+                .isEqualTo(0.0);
+    }
+
+    @Test
+    void getConnection_fallsBackToPrimary_whenNoReplicaIsAvailable() throws SQLException {
+        DataSource unreachable = mock(DataSource.class);
+        when(unreachable.getConnection()).thenThrow(new SQLException("Connection refused"));
+        ReadReplicaRoutingDataSource dataSource = routingDataSource(unreachable, replica(mock(Connection.class), 60));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(meterRegistry.get("shareit.read-replica.fallbacks").functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("shareit.read-replica.available").tag("replica", "replica-1").gauge().value())
+                .isEqualTo(0.0);
+    }
+
+    @Test
+    void getConnection_fallsBackToPrimaryAndLeavesReplicaOut_whenReplicaFailsToConnect() throws SQLException {
+        Connection lagCheckConnection = mock(Connection.class);
+        DataSource failing = replica(lagCheckConnection, 0);
+        when(failing.getConnection()).thenReturn(lagCheckConnection).thenThrow(new SQLException("Too many clients"));
+        ReadReplicaRoutingDataSource dataSource = routingDataSource(failing);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(meterRegistry.get("shareit.read-replica.fallbacks").functionCounter().count()).isEqualTo(2.0);
+    }
+
+    private ReadReplicaRoutingDataSource routingDataSource(DataSource... replicas) throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        Map<String, DataSource> named = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.length; i++) {
+            named.put("replica-" + (i + 1), replicas[i]);
+        }
+        ReadReplicaRoutingDataSource dataSource = new ReadReplicaRoutingDataSource(primary, named, LAG_QUERY,
+                Duration.ofSeconds(5));
+        dataSource.bindTo(meterRegistry);
+        dataSource.checkReplicas();
+        return dataSource;
+    }
+
+    /**
+     * @return a replica whose connections report the given lag, closing them has no effect on the mocks
+     */
+    private static DataSource replica(Connection connection, double lagSeconds) throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(LAG_QUERY)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getDouble(1)).thenReturn(lagSeconds);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two transactions of one request sharing the session as open-in-view does, against two H2 databases
+ * standing for the primary and its replica.
+ */
+class ReadReplicaTransactionsTest {
+
+    private final JdbcTemplate primary = new JdbcTemplate(database());
+    private final JdbcTemplate replica = new JdbcTemplate(database());
+    private ReadReplicaRoutingDataSource routingDataSource;
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private EntityManagerFactory entityManagerFactory;
+    private JpaTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        routingDataSource = new ReadReplicaRoutingDataSource(primary.getDataSource(),
+                Map.of("replica-1", replica.getDataSource()), "SELECT 0", Duration.ofSeconds(5));
+        routingDataSource.checkReplicas();
+
+        Map<String, Object> properties = Map.of(
+                "hibernate.id.optimizer.pooled.preferred", "pooled-lo",
+                "hibernate.connection.handling_mode", "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(new LazyConnectionDataSourceProxy(routingDataSource));
+        factoryBean.setPackagesToScan(User.class.getPackageName());
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(properties);
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+        transactionManager = new JpaTransactionManager(entityManagerFactory);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        factoryBean.destroy();
+        routingDataSource.close();
+        primary.execute("SET DB_CLOSE_DELAY 0");
+        replica.execute("SET DB_CLOSE_DELAY 0");
+    }
+
+    @Test
+    void writeAfterReadOnlyTransactionOfSameRequest_goesToPrimary() {
+        replica.update("insert into users (id, name, email) values (1, 'Replica', 'replica@mail.ru')");
+        EntityManager requestEntityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory,
+                new EntityManagerHolder(requestEntityManager));
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            Long readUsers = readOnly.execute(status -> requestEntityManager
+                    .createQuery("select count(u) from User u", Long.class)
+                    .getSingleResult());
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    requestEntityManager.persist(User.builder().name("Primary").email("primary@mail.ru").build()));
+
+            assertThat(readUsers).isEqualTo(1L);
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            requestEntityManager.close();
+        }
+        assertThat(primary.queryForList("select email from users", String.class)).containsExactly("primary@mail.ru");
+        assertThat(replica.queryForList("select email from users", String.class)).containsExactly("replica@mail.ru");
+    }
+
+    private static DriverManagerDataSource database() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "test", "test");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        return dataSource;
+    }
+}
@@ -13,6 +13,7 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.util.Optional;
 
@@ -28,6 +29,8 @@ class ItemMapperTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserExistenceCache userExistenceCache;
+    @Mock
     private ItemRequestRepository itemRequestRepository;
     @InjectMocks
     private ItemMapper mapper;
@@ -38,7 +41,9 @@ class ItemMapperTest {
         User user = getMockUser(dto.getOwnerId());
         ItemRequest request = getDefaultItemRequest();
         Mockito
-                .when(userRepository.findById(dto.getOwnerId())).thenReturn(Optional.of(user));
+                .when(userExistenceCache.exists(dto.getOwnerId())).thenReturn(true);
+        Mockito
+                .when(userRepository.getReferenceById(dto.getOwnerId())).thenReturn(user);
         Mockito
                 .when(itemRequestRepository.findById(dto.getRequestId())).thenReturn(Optional.of(request));
         Item item = mapper.mapToDomain(dto);
@@ -54,7 +59,9 @@ class ItemMapperTest {
         ItemDto dto = getItemDtoRequest(ITEM_REQUEST_ID);
         User user = getMockUser(dto.getOwnerId());
         Mockito
-                .when(userRepository.findById(dto.getOwnerId())).thenReturn(Optional.of(user));
+                .when(userExistenceCache.exists(dto.getOwnerId())).thenReturn(true);
+        Mockito
+                .when(userRepository.getReferenceById(dto.getOwnerId())).thenReturn(user);
         Mockito
                 .when(itemRequestRepository.findById(dto.getRequestId())).thenReturn(Optional.empty());
         assertThrows(ServiceException.class, () -> mapper.mapToDomain(dto));
@@ -64,7 +71,7 @@ class ItemMapperTest {
     void mapToDomain_whenUserNotFound_throws() {
         ItemDto dto = getItemDtoRequest(ITEM_REQUEST_ID);
         Mockito
-                .when(userRepository.findById(dto.getOwnerId())).thenReturn(Optional.empty());
+                .when(userExistenceCache.exists(dto.getOwnerId())).thenReturn(false);
         assertThrows(ServiceException.class, () -> mapper.mapToDomain(dto));
     }
 
@@ -74,6 +74,43 @@ class ItemRepositoryTest extends BaseJpaTest {
         assertThat(items).isEmpty();
     }
 
+    @Test
+    void searchAllAvailableItemsRanked_returnsNameMatchesFirst() {
+        User owner = getAndSaveUser("owner@email.com");
+        User requestor = getAndSaveUser("requestor@email.com");
+        ItemRequest itemRequest = getAndSaveItemRequest(requestor);
+        Item descriptionMatch = getAndSaveItem(owner, itemRequest);
+        descriptionMatch.setName("Hammer");
+        descriptionMatch.setDescription("Goes well with a drill");
+        Item nameMatch = getAndSaveItem(owner, itemRequest);
+        nameMatch.setName("Drill");
+        Item unavailable = getAndSaveItem(owner, itemRequest);
+        unavailable.setName("Drill");
+        unavailable.setAvailable(false);
+        em.flush();
+
+        List<Item> items = itemRepository.searchAllAvailableItemsRanked("dRiLL", "dRiLL",
+                new OffsetBasedPageRequest(0, 10));
+        assertThat(items).extracting(Item::getId).containsExactly(nameMatch.getId(), descriptionMatch.getId());
+    }
+
+    @Test
+    void findIdsByOwnerId_returnsOnlyIdsOfOwnerFittingInPage() {
+        User owner = getAndSaveUser("owner@email.com");
+        User other = getAndSaveUser("other@email.com");
+        ItemRequest itemRequest = getAndSaveItemRequest(other);
+        getAndSaveItem(owner, itemRequest);
+        getAndSaveItem(other, itemRequest);
+        Item item2 = getAndSaveItem(owner, itemRequest);
+        Item item3 = getAndSaveItem(owner, itemRequest);
+
+        List<Long> ids = itemRepository.findIdsByOwnerId(owner.getId(), new OffsetBasedPageRequest(1, 2));
+        assertThat(ids).containsExactly(item2.getId(), item3.getId());
+
+        List<Item> items = itemRepository.findAllByIdInFetchOwner(ids);
+        assertThat(items).extracting(Item::getId).containsExactly(item2.getId(), item3.getId());
+    }
+
     private Item getAndSaveItem(User owner, ItemRequest itemRequest) {
         Item item = getAvailableItemWithoutBookings();
         item.setId(null);
@@ -6,8 +6,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.shareit.item.dto.CommentRequest;
 import ru.practicum.shareit.item.dto.CommentResponse;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
@@ -28,6 +30,8 @@ class CommentServiceImplTest {
     private CommentRepository commentRepository;
     @Mock
     private CommentMapper mapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     @InjectMocks
     private CommentServiceImpl commentService;
 
@@ -120,6 +124,7 @@ class CommentServiceImplTest {
         CommentResponse actual = commentService.saveComment(dto);
 
         assertThat(actual).isEqualTo(expected);
+        Mockito.verify(eventPublisher).publishEvent(ItemChangedEvent.of(item.getId()));
     }
 
 
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSearchView;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.util.OffsetBasedPageRequest;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static ru.practicum.shareit.item.service.InMemoryItemSearchEngine.REBUILD_BATCH_SIZE;
+import static ru.practicum.shareit.testutil.TestDataProvider.getAvailableItemWithoutBookings;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private InMemoryItemSearchEngine searchEngine;
+
+    @Test
+    void rebuild_indexesItemsFromRepository() {
+        Mockito
+                .when(itemRepository.findSearchViewsAfterId(0L, PageRequest.of(0, REBUILD_BATCH_SIZE)))
+                .thenReturn(List.of(view(7L, "Дрель", 3L, 5L)));
+
+        searchEngine.rebuild();
+
+        List<Item> found = searchEngine.searchAvailableItems("дрель", new OffsetBasedPageRequest(0, 10));
+        assertThat(found).hasSize(1);
+        assertThat(found.get(0).getId()).isEqualTo(7L);
+        assertThat(found.get(0).getName()).isEqualTo("Дрель");
+        assertThat(found.get(0).getOwner().getId()).isEqualTo(3L);
+        assertThat(found.get(0).getRequest().getId()).isEqualTo(5L);
+    }
+
+    @Test
+    void itemSaved_whenNoTransaction_indexesItemImmediately() {
+        Mockito
+                .when(itemRepository.findSearchViewsAfterId(0L, PageRequest.of(0, REBUILD_BATCH_SIZE)))
+                .thenReturn(Collections.emptyList());
+        searchEngine.rebuild();
+        Item item = getAvailableItemWithoutBookings();
+
+        searchEngine.itemSaved(item);
+        List<Item> found = searchEngine.searchAvailableItems(item.getName(), new OffsetBasedPageRequest(0, 10));
+        assertThat(found).extracting(Item::getId).containsExactly(item.getId());
+
+        searchEngine.itemDeleted(item.getId(), item.getOwner().getId());
+        assertThat(searchEngine.searchAvailableItems(item.getName(), new OffsetBasedPageRequest(0, 10))).isEmpty();
+    }
+
+    private static ItemSearchView view(Long id, String name, Long ownerId, Long requestId) {
+        return new ItemSearchView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return "description";
+            }
+
+            @Override
+            public Boolean getAvailable() {
+                return true;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+
+            @Override
+            public Long getRequestId() {
+                return requestId;
+            }
+        };
+    }
+}
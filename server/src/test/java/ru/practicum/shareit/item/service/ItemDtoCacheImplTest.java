@@ -0,0 +1,91 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import ru.practicum.shareit.error.ServiceException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static ru.practicum.shareit.testutil.TestConstants.ITEM_ID;
+import static ru.practicum.shareit.testutil.TestDataProvider.getAvailableItemWithoutBookings;
+import static ru.practicum.shareit.testutil.TestDataProvider.itemDtoFromDomain;
+
+class ItemDtoCacheImplTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ItemDtoCacheImpl cache = new ItemDtoCacheImpl(100, Duration.ofMinutes(10), meterRegistry);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_loadsOnce_andCountsHitsAndMisses() {
+        Function<Long, ItemDto> loader = loader();
+
+        cache.get(ITEM_ID, loader);
+        cache.get(ITEM_ID, loader);
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void get_returnsCopyThatDoesNotAffectCachedEntry() {
+        Function<Long, ItemDto> loader = loader();
+
+        cache.get(ITEM_ID, loader).setName("changed");
+
+        assertThat(cache.get(ITEM_ID, loader).getName()).isNotEqualTo("changed");
+    }
+
+    @Test
+    void onItemChanged_dropsEntry() {
+        Function<Long, ItemDto> loader = loader();
+        cache.get(ITEM_ID, loader);
+
+        cache.onItemChanged(ItemChangedEvent.of(ITEM_ID));
+        cache.get(ITEM_ID, loader);
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void get_whenLoadFails_rethrowsAndLoadsAgainOnNextCall() {
+        Function<Long, ItemDto> failing = id -> {
+            loads.incrementAndGet();
+            throw new ServiceException(HttpStatus.NOT_FOUND.value(), "Item not found");
+        };
+
+        assertThatThrownBy(() -> cache.get(ITEM_ID, failing)).isInstanceOf(ServiceException.class);
+        cache.get(ITEM_ID, loader());
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void get_whenLoaderThrowsError_rethrowsAndLoadsAgainOnNextCall() {
+        Function<Long, ItemDto> failing = id -> {
+            loads.incrementAndGet();
+            throw new StackOverflowError();
+        };
+
+        assertThatThrownBy(() -> cache.get(ITEM_ID, failing)).isInstanceOf(StackOverflowError.class);
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> cache.get(ITEM_ID, loader()));
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private Function<Long, ItemDto> loader() {
+        return id -> {
+            loads.incrementAndGet();
+            return itemDtoFromDomain(getAvailableItemWithoutBookings());
+        };
+    }
+}
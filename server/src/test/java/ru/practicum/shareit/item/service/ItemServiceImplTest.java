@@ -6,23 +6,39 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingShortView;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.bulk.BulkResult;
+import ru.practicum.shareit.bulk.BulkRow;
 import ru.practicum.shareit.error.ServiceException;
 import ru.practicum.shareit.item.dto.BookingResponseDto;
 import ru.practicum.shareit.item.dto.CommentResponse;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 import ru.practicum.shareit.util.OffsetBasedPageRequest;
 
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static ru.practicum.shareit.testutil.TestConstants.*;
 import static ru.practicum.shareit.testutil.TestDataProvider.*;
 
@@ -34,12 +50,69 @@ class ItemServiceImplTest {
     @Mock
     private ItemMapper itemMapper;
     @Mock
-    private UserRepository userRepository;
+    private UserExistenceCache userExistenceCache;
     @Mock
     private CommentService commentService;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+    @Mock
+    private ItemDtoCache itemDtoCache;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private EntityManager entityManager;
     @InjectMocks
     private ItemServiceImpl itemService;
 
+    @Test
+    void saveItems_whenRowsInvalid_reportsThemAndSavesTheRest() {
+        ItemDto valid = getItemDtoForCreate(1L);
+        ItemDto noName = getItemDtoForCreate(null);
+        noName.setName("");
+        ItemDto unknownRequest = getItemDtoForCreate(2L);
+        Mockito
+                .when(userExistenceCache.exists(OWNER_ID)).thenReturn(true);
+        Mockito
+                .when(itemRequestRepository.findAllById(Set.of(1L, 2L)))
+                .thenReturn(List.of(getItemRequest(1L, getMockUser(ITEM_REQUESTOR_ID))));
+        Mockito
+                .when(itemRepository.saveAll(anyList())).thenAnswer(invocation -> {
+                    List<Item> items = invocation.getArgument(0);
+                    items.forEach(item -> item.setId(ITEM_ID));
+                    return items;
+                });
+
+        List<BulkResult> results = itemService.saveItems(OWNER_ID, List.of(
+                BulkRow.of(1, valid),
+                BulkRow.of(2, noName),
+                BulkRow.of(3, unknownRequest)));
+
+        assertThat(results).containsExactlyInAnyOrder(
+                BulkResult.created(1, ITEM_ID),
+                BulkResult.failed(2, "Name must not be empty."),
+                BulkResult.failed(3, "Item request with ID=2 not found."));
+        Mockito.verify(userRepository).getReferenceById(OWNER_ID);
+        Mockito.verify(itemSearchEngine).itemSaved(any(Item.class));
+        Mockito.verify(itemRepository).flush();
+        Mockito.verify(entityManager).clear();
+    }
+
+    @Test
+    void saveItems_whenOwnerNotFound_throws() {
+        Mockito
+                .when(userExistenceCache.exists(OWNER_ID)).thenReturn(false);
+
+        assertThrows(ServiceException.class,
+                () -> itemService.saveItems(OWNER_ID, List.of(BulkRow.of(1, getItemDtoForCreate(null)))));
+        Mockito.verifyNoInteractions(itemRepository);
+    }
+
     @Test
     void getItemsForUser_whenHasManyItems_returnsOnlyThoseFittingInPage() {
         int start = 1;
@@ -51,11 +124,13 @@ class ItemServiceImplTest {
         item2.setId(item.getId() + 1);
         Item item3 = getAvailableItemWithoutBookings();
         item3.setId(item2.getId() + 1);
-        Item item4 = getAvailableItemWithoutBookings();
-        item4.setId(item3.getId() + 1);
+        List<Long> ids = List.of(item2.getId(), item3.getId());
 
         Mockito
-                .when(itemRepository.findAllByOwnerIdFetchBookings(OWNER_ID, pageable))
+                .when(itemRepository.findIdsByOwnerId(OWNER_ID, pageable))
+                .thenReturn(ids);
+        Mockito
+                .when(itemRepository.findAllByIdInFetchOwner(ids))
                 .thenReturn(List.of(item2, item3));
 
         Mockito
@@ -82,26 +157,13 @@ class ItemServiceImplTest {
         Pageable pageable = new OffsetBasedPageRequest(start, size);
 
         Item item = getAvailableItemWithoutBookings();
-
         Booking lastBooking = getBooking();
-        item.getBookings().add(lastBooking);
         lastBooking.setItem(item);
-
         Booking nextBooking = getNextBooking();
-        item.getBookings().add(lastBooking);
+        nextBooking.setId(lastBooking.getId() + 1);
         nextBooking.setItem(item);
-
-        Booking afterNextBooking = getNextBooking();
-        afterNextBooking.setStart(afterNextBooking.getStart().plusDays(1));
-        afterNextBooking.setEnd(afterNextBooking.getEnd().plusDays(2));
-        item.getBookings().add(afterNextBooking);
-        afterNextBooking.setItem(item);
-
-        Booking beforeLastBooking = getBooking();
-        beforeLastBooking.setStart(beforeLastBooking.getStart().minusDays(10));
-        beforeLastBooking.setEnd(beforeLastBooking.getEnd().minusDays(5));
-        item.getBookings().add(beforeLastBooking);
-        beforeLastBooking.setItem(item);
+        Booking nextBookingSameStart = getNextBooking();
+        nextBookingSameStart.setItem(item);
 
         BookingResponseDto last = fromBookingDomain(lastBooking);
         BookingResponseDto next = fromBookingDomain(nextBooking);
@@ -109,10 +171,20 @@ class ItemServiceImplTest {
         Map<Long, List<CommentResponse>> itemIdToComments = Map.of(
                 item.getId(), commentResponseList
         );
+        List<Long> ids = List.of(item.getId());
 
         Mockito
-                .when(itemRepository.findAllByOwnerIdFetchBookings(OWNER_ID, pageable))
+                .when(itemRepository.findIdsByOwnerId(OWNER_ID, pageable))
+                .thenReturn(ids);
+        Mockito
+                .when(itemRepository.findAllByIdInFetchOwner(ids))
                 .thenReturn(List.of(item));
+        Mockito
+                .when(bookingRepository.findLastBookingsOfItems(eq(ids), eq(BookingStatus.APPROVED), any()))
+                .thenReturn(List.of(toShortView(lastBooking)));
+        Mockito
+                .when(bookingRepository.findNextBookingsOfItems(eq(ids), anyCollection(), any()))
+                .thenReturn(List.of(toShortView(nextBookingSameStart), toShortView(nextBooking)));
 
         Mockito
                 .when(commentService.getItemIdToComments(Set.of(item.getId())))
@@ -137,14 +209,30 @@ class ItemServiceImplTest {
         Pageable pageable = new OffsetBasedPageRequest(start, size);
 
         Mockito
-                .when(itemRepository.findAllByOwnerIdFetchBookings(OWNER_ID, pageable))
+                .when(itemRepository.findIdsByOwnerId(OWNER_ID, pageable))
                 .thenReturn(Collections.emptyList());
-        Mockito
-                .when(commentService.getItemIdToComments(Set.of()))
-                .thenReturn(Map.of());
 
         List<ItemDto> itemsForUser = itemService.getItemsForUser(OWNER_ID, start, size);
         assertThat(itemsForUser).isEmpty();
+        Mockito.verifyNoInteractions(bookingRepository, commentService);
+    }
+
+    @Test
+    void searchAvailableItems_returnsItemsFoundBySearchEngine() {
+        Pageable pageable = new OffsetBasedPageRequest(0, 10);
+        Item item = getAvailableItemWithoutBookings();
+        Mockito
+                .when(itemSearchEngine.searchAvailableItems("item", pageable))
+                .thenReturn(List.of(item));
+
+        List<ItemDto> found = itemService.searchAvailableItems("item", 0, 10);
+        assertThat(found).extracting(ItemDto::getId).containsExactly(item.getId());
+    }
+
+    @Test
+    void searchAvailableItems_whenQueryIsEmpty_returnsEmptyList() {
+        assertThat(itemService.searchAvailableItems("", 0, 10)).isEmpty();
+        Mockito.verifyNoInteractions(itemSearchEngine);
     }
 
     @Test
@@ -177,11 +265,10 @@ class ItemServiceImplTest {
         dto.setDescription("New Description");
         dto.setAvailable(false);
         dto.setId(item.getId());
-        User userRef = User.builder().id(OWNER_ID).build();
         Mockito
                 .when(itemRepository.findById(dto.getId())).thenReturn(Optional.of(item));
         Mockito
-                .when(userRepository.getReferenceById(OWNER_ID)).thenReturn(userRef);
+                .when(userExistenceCache.exists(OWNER_ID)).thenReturn(true);
         ItemDto updated = itemService.update(dto, OWNER_ID);
         assertThat(updated).isEqualTo(dto);
     }
@@ -190,11 +277,10 @@ class ItemServiceImplTest {
     void update_whenItemNotBelongsToUser_thenThrows() {
         ItemDto dto = getItemDtoRequest(ITEM_REQUEST_ID);
         Item item = itemFromDto(dto);
-        User userRef = User.builder().id(OWNER_ID + 1).build();
         Mockito
                 .when(itemRepository.findById(dto.getId())).thenReturn(Optional.of(item));
         Mockito
-                .when(userRepository.getReferenceById(OWNER_ID + 1)).thenReturn(userRef);
+                .when(userExistenceCache.exists(OWNER_ID + 1)).thenReturn(true);
 
         assertThrows(ServiceException.class, () -> itemService.update(dto, OWNER_ID + 1));
     }
@@ -203,11 +289,10 @@ class ItemServiceImplTest {
     void update_whenOwnerNotFound_throws() {
         ItemDto dto = getItemDtoRequest(ITEM_REQUEST_ID);
         Item item = itemFromDto(dto);
-        User userRef = User.builder().build();
         Mockito
                 .when(itemRepository.findById(dto.getId())).thenReturn(Optional.of(item));
         Mockito
-                .when(userRepository.getReferenceById(OWNER_ID)).thenReturn(userRef);
+                .when(userExistenceCache.exists(OWNER_ID)).thenReturn(false);
 
         assertThrows(ServiceException.class, () -> itemService.update(dto, OWNER_ID));
     }
@@ -221,43 +306,112 @@ class ItemServiceImplTest {
     }
 
     @Test
-    void findById_whenHasItem_returnsCorrectDto() {
+    void findById_whenUserIsOwner_returnsDtoWithLastAndNextBookings() {
         Item item = getAvailableItemWithoutBookings();
         Booking lastBooking = getBooking();
-        item.getBookings().add(lastBooking);
-        lastBooking.setItem(item);
         Booking nextBooking = getNextBooking();
-        item.getBookings().add(lastBooking);
-        nextBooking.setItem(item);
+        nextBooking.setId(lastBooking.getId() + 1);
         BookingResponseDto last = fromBookingDomain(lastBooking);
         BookingResponseDto next = fromBookingDomain(nextBooking);
         List<CommentResponse> commentResponseList = getCommentResponseList();
+        Mockito
+                .when(itemRepository.findByIdOwnerFetched(ITEM_ID))
+                .thenReturn(Optional.of(item));
+        Mockito
+                .when(itemMapper.mapToDto(item)).thenReturn(itemDtoFromDomain(item));
+        Mockito
+                .when(bookingRepository.findLastBookingsOfItem(eq(ITEM_ID),
+                        eq(BookingStatus.APPROVED),
+                        any(),
+                        eq(PageRequest.of(0, 1))))
+                .thenReturn(List.of(toShortView(lastBooking)));
+        Mockito
+                .when(bookingRepository.findNextBookingsOfItem(eq(ITEM_ID),
+                        anyCollection(),
+                        any(),
+                        eq(PageRequest.of(0, 1))))
+                .thenReturn(List.of(toShortView(nextBooking)));
         Mockito
                 .when(commentService.getCommentsOfItem(item.getId()))
-                        .thenReturn(commentResponseList);
+                .thenReturn(commentResponseList);
+
+        ItemDto expected = itemDtoFromDomainWithBookings(item, last, next);
+        expected.setComments(commentResponseList);
+
+        loadOnCacheMiss();
+
+        ItemDto byId = itemService.findById(ITEM_ID, OWNER_ID);
+        assertThat(byId).isEqualTo(expected);
+    }
+
+    @Test
+    void findById_whenUserIsNotOwner_doesNotLoadBookings() {
         Mockito
-                .when(itemRepository.findItemByIdWithBookingsFetched(ITEM_ID))
-                .thenReturn(Optional.of(item));
+                .when(itemDtoCache.get(eq(ITEM_ID), any()))
+                .thenReturn(itemDtoFromDomain(getAvailableItemWithoutBookings()));
 
-        ItemDto dto = itemDtoFromDomainWithBookings(item, last, next);
-        dto.setComments(commentResponseList);
+        ItemDto byId = itemService.findById(ITEM_ID, OWNER_ID + 1);
+
+        assertThat(byId.getLastBooking()).isNull();
+        assertThat(byId.getNextBooking()).isNull();
+        assertThat(byId.getId()).isEqualTo(ITEM_ID);
+        Mockito.verifyNoInteractions(bookingRepository);
+    }
 
+    @Test
+    void update_publishesItemChangedEvent() {
+        Item item = getAvailableItemWithoutBookings();
+        ItemDto patch = ItemDto.builder().id(item.getId()).name("New name").build();
         Mockito
-                .when(itemMapper.mapToDto(item)).thenReturn(dto);
+                .when(itemRepository.findById(item.getId()))
+                .thenReturn(Optional.of(item));
         Mockito
-                .when(commentService.getCommentsOfItem(item.getId()))
-                .thenReturn(Collections.emptyList());
+                .when(userExistenceCache.exists(OWNER_ID))
+                .thenReturn(true);
 
-        ItemDto byId = itemService.findById(ITEM_ID, OWNER_ID);
-        assertThat(byId).isEqualTo(dto);
+        itemService.update(patch, OWNER_ID);
+
+        Mockito.verify(eventPublisher).publishEvent(ItemChangedEvent.of(item.getId()));
     }
 
     @Test
     void findById_whenNoItem_throws() {
         Mockito
-                .when(itemRepository.findItemByIdWithBookingsFetched(ITEM_ID))
+                .when(itemRepository.findByIdOwnerFetched(ITEM_ID))
                 .thenReturn(Optional.empty());
+        loadOnCacheMiss();
         assertThrows(ServiceException.class, () -> itemService.findById(ITEM_ID, OWNER_ID));
     }
 
-}
\ No newline at end of file
+    @SuppressWarnings("unchecked")
+    private void loadOnCacheMiss() {
+        Mockito
+                .when(itemDtoCache.get(eq(ITEM_ID), any()))
+                .thenAnswer(invocation -> invocation.getArgument(1, Function.class).apply(ITEM_ID));
+    }
+
+    private static BookingShortView toShortView(Booking booking) {
+        return new BookingShortView() {
+            @Override
+            public Long getId() {
+                return booking.getId();
+            }
+
+            @Override
+            public Long getBookerId() {
+                return booking.getBooker().getId();
+            }
+
+            @Override
+            public Long getItemId() {
+                return booking.getItem().getId();
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return booking.getStart();
+            }
+        };
+    }
+
+}
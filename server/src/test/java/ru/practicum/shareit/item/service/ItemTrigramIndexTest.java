@@ -0,0 +1,86 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.service.ItemTrigramIndex.IndexedItem;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+
+class ItemTrigramIndexTest {
+
+    private final ItemTrigramIndex index = new ItemTrigramIndex();
+
+    @Test
+    void searchAvailable_matchesSubstringIgnoringCase_nameMatchesFirst() {
+        index.putAll(List.of(
+                item(1L, "Отвертка", "Крестовая", true, 1L),
+                item(2L, "Набор", "Ключи и отвертка", true, 1L),
+                item(3L, "Дрель", "Аккумуляторная", true, 1L)));
+
+        assertThat(ids(index.searchAvailable("оТверТ", 0, 10))).containsExactly(1, 2);
+        assertThat(ids(index.searchAvailable("ДРЕЛЬ", 0, 10))).containsExactly(3);
+        assertThat(ids(index.searchAvailable("пила", 0, 10))).isEmpty();
+    }
+
+    @Test
+    void searchAvailable_whenQueryIsShorterThanGram_scansAllItems() {
+        index.putAll(List.of(
+                item(2L, "ab", "x", true, 1L),
+                item(1L, "cd", "AB", true, 1L)));
+
+        assertThat(ids(index.searchAvailable("aB", 0, 10))).containsExactly(2, 1);
+    }
+
+    @Test
+    void searchAvailable_skipsUnavailableItems_andAppliesPage() {
+        index.putAll(List.of(
+                item(1L, "drill 1", "d", true, 1L),
+                item(2L, "drill 2", "d", false, 1L),
+                item(3L, "drill 3", "d", true, 1L),
+                item(4L, "drill 4", "d", true, 1L)));
+
+        assertThat(ids(index.searchAvailable("drill", 1, 2))).containsExactly(3, 4);
+    }
+
+    @Test
+    void put_whenItemUpdated_replacesIndexedText() {
+        index.put(item(1L, "drill", "d", true, 1L));
+        index.put(item(1L, "saw", "d", true, 1L));
+
+        assertThat(index.searchAvailable("drill", 0, 10)).isEmpty();
+        assertThat(ids(index.searchAvailable("saw", 0, 10))).containsExactly(1);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void remove_removesOnlyItemOfOwner() {
+        index.put(item(1L, "drill", "d", true, 1L));
+
+        index.remove(1, 2L);
+        assertThat(index.size()).isEqualTo(1);
+
+        index.remove(1, 1L);
+        assertThat(index.searchAvailable("drill", 0, 10)).isEmpty();
+        assertThat(index.size()).isEqualTo(0);
+    }
+
+    @Test
+    void removeAllOfOwner_keepsItemsOfOtherOwners() {
+        index.putAll(List.of(
+                item(1L, "drill", "d", true, 1L),
+                item(2L, "drill", "d", true, 2L)));
+
+        index.removeAllOfOwner(1L);
+        assertThat(ids(index.searchAvailable("drill", 0, 10))).containsExactly(2);
+    }
+
+    private static IndexedItem item(Long id, String name, String description, boolean available, Long ownerId) {
+        return IndexedItem.of(id, name, description, available, ownerId, null);
+    }
+
+    private static List<Integer> ids(List<IndexedItem> items) {
+        return items.stream().map(IndexedItem::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.util.OffsetBasedPageRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static ru.practicum.shareit.testutil.TestDataProvider.getAvailableItemWithoutBookings;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+    @InjectMocks
+    private PostgresItemSearchEngine searchEngine;
+
+    @Test
+    void searchAvailableItems_escapesLikeWildcardsOnlyInPattern() {
+        Pageable pageable = new OffsetBasedPageRequest(0, 10);
+        List<Item> expected = List.of(getAvailableItemWithoutBookings());
+        Mockito
+                .when(itemRepository.searchAllAvailableItemsRanked("50%_off\\", "50\\%\\_off\\\\", pageable))
+                .thenReturn(expected);
+
+        List<Item> actual = searchEngine.searchAvailableItems("50%_off\\", pageable);
+        assertThat(actual).isEqualTo(expected);
+    }
+}
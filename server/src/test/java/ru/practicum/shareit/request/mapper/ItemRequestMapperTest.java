@@ -15,10 +15,11 @@ import ru.practicum.shareit.request.dto.ItemResponse;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
@@ -32,6 +33,8 @@ class ItemRequestMapperTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserExistenceCache userExistenceCache;
+    @Mock
     private ItemRepository itemRepository;
     @InjectMocks
     private ItemRequestMapper mapper;
@@ -60,12 +63,47 @@ class ItemRequestMapperTest {
 
     }
 
+    @Test
+    void mapToDtos_loadsItemsOfAllRequestsWithOneQuery() {
+        User requestor = getMockUser(ITEM_REQUESTOR_ID);
+        ItemRequest request1 = getItemRequest(ITEM_REQUEST_ID, requestor);
+        ItemRequest request2 = getItemRequest(ITEM_REQUEST_ID + 1, requestor);
+        ItemRequest noItemsRequest = getItemRequest(ITEM_REQUEST_ID + 2, requestor);
+        Item item1 = getItemWithItemRequest(1L, request1, getMockUser(101L), true);
+        Item item2 = getItemWithItemRequest(2L, request2, getMockUser(102L), true);
+        Item item3 = getItemWithItemRequest(3L, request1, getMockUser(103L), false);
+
+        Mockito
+                .when(itemRepository.findAllByRequest_IdIn(
+                        Set.of(request1.getId(), request2.getId(), noItemsRequest.getId())))
+                .thenReturn(List.of(item1, item2, item3));
+
+        List<ItemRequestResponse> expected = List.of(
+                getItemRequestResponse(request1, List.of(
+                        getItemResponseFromItem(item1, request1.getId()),
+                        getItemResponseFromItem(item3, request1.getId()))),
+                getItemRequestResponse(request2, List.of(getItemResponseFromItem(item2, request2.getId()))),
+                getItemRequestResponse(noItemsRequest, List.of()));
+
+        List<ItemRequestResponse> actual = mapper.mapToDtos(List.of(request1, request2, noItemsRequest));
+        assertThat(actual).isEqualTo(expected);
+        Mockito.verify(itemRepository, Mockito.never()).findAllByRequest_Id(Mockito.anyLong());
+    }
+
+    @Test
+    void mapToDtos_whenNoRequests_doesNotQueryItems() {
+        assertThat(mapper.mapToDtos(List.of())).isEmpty();
+        Mockito.verifyNoInteractions(itemRepository);
+    }
+
     @Test
     void mapToDomain_whenAllGood_returnsItemRequest() {
         ItemRequestDto dto = getitemRequestDto(ITEM_REQUESTOR_ID);
         User requestor = getMockUser(ITEM_REQUESTOR_ID);
         Mockito
-                .when(userRepository.findById(dto.getRequestorId())).thenReturn(Optional.of(requestor));
+                .when(userExistenceCache.exists(dto.getRequestorId())).thenReturn(true);
+        Mockito
+                .when(userRepository.getReferenceById(dto.getRequestorId())).thenReturn(requestor);
         ItemRequest expected = getItemRequestFromDto(dto, requestor);
 
         ItemRequest actual = mapper.mapToDomain(dto);
@@ -77,7 +115,7 @@ class ItemRequestMapperTest {
     void mapToDomain_whenRequestorNotFound_throws() {
         ItemRequestDto dto = getitemRequestDto(ITEM_REQUESTOR_ID);
         Mockito
-                .when(userRepository.findById(dto.getRequestorId())).thenReturn(Optional.empty());
+                .when(userExistenceCache.exists(dto.getRequestorId())).thenReturn(false);
         assertThrows(ServiceException.class, () -> mapper.mapToDomain(dto));
     }
 
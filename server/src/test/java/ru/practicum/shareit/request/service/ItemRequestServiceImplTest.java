@@ -12,7 +12,7 @@ import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -32,7 +32,7 @@ class ItemRequestServiceImplTest {
     @Mock
     private ItemRequestMapper mapper;
     @Mock
-    private UserRepository userRepository;
+    private UserExistenceCache userExistenceCache;
     @InjectMocks
     private ItemRequestServiceImpl itemRequestService;
 
@@ -43,21 +43,19 @@ class ItemRequestServiceImplTest {
         ItemRequest request2 = getItemRequest(ITEM_REQUEST_ID + 10, requestor);
         List<ItemRequest> requests = List.of(request1, request2);
         Mockito
-                .when(userRepository.existsById(ITEM_REQUESTOR_ID))
+                .when(userExistenceCache.exists(ITEM_REQUESTOR_ID))
                 .thenReturn(true);
         Mockito
                 .when(itemRequestRepository.findAllByRequestor_Id(ITEM_REQUESTOR_ID))
                 .thenReturn(requests);
         List<ItemRequestResponse> expected = new ArrayList<>();
 
-        for (int i = 0; i < requests.size(); i++) {
-            ItemRequest request = requests.get(i);
-            ItemRequestResponse response = getItemRequestResponse(request, Collections.emptyList());
-            expected.add(response);
-            Mockito
-                    .when(mapper.mapToDto(request))
-                    .thenReturn(response);
+        for (ItemRequest request : requests) {
+            expected.add(getItemRequestResponse(request, Collections.emptyList()));
         }
+        Mockito
+                .when(mapper.mapToDtos(requests))
+                .thenReturn(expected);
 
         List<ItemRequestResponse> actual = itemRequestService.getItemRequestsOfUser(ITEM_REQUESTOR_ID);
         assertThat(actual).isEqualTo(expected);
@@ -66,7 +64,7 @@ class ItemRequestServiceImplTest {
     @Test
     void getItemRequestsOfUser_whenUserNotExists_throws() {
         Mockito
-                .when(userRepository.existsById(ITEM_REQUESTOR_ID))
+                .when(userExistenceCache.exists(ITEM_REQUESTOR_ID))
                 .thenReturn(false);
         assertThrows(ServiceException.class,
                 () -> itemRequestService.getItemRequestsOfUser(ITEM_REQUESTOR_ID));
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceCacheImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @InjectMocks
+    private UserExistenceCacheImpl cache;
+
+    @Test
+    void exists_whenUserFoundInDb_remembersIt() {
+        Mockito
+                .when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertThat(cache.exists(1L)).isTrue();
+        assertThat(cache.exists(1L)).isTrue();
+        Mockito.verify(userRepository, Mockito.times(1)).existsById(1L);
+    }
+
+    @Test
+    void exists_whenUserNotFound_checksDbAgainNextTime() {
+        Mockito
+                .when(userRepository.existsById(1L)).thenReturn(false);
+
+        assertThat(cache.exists(1L)).isFalse();
+        assertThat(cache.exists(1L)).isFalse();
+        Mockito.verify(userRepository, Mockito.times(2)).existsById(1L);
+    }
+
+    @Test
+    void addUser_whenNoTransaction_answersWithoutDb() {
+        cache.addUser(5L);
+
+        assertThat(cache.exists(5L)).isTrue();
+        Mockito.verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void removeUser_fallsBackToDb() {
+        cache.addUser(5L);
+        cache.removeUser(5L);
+        Mockito
+                .when(userRepository.existsById(5L)).thenReturn(false);
+
+        assertThat(cache.exists(5L)).isFalse();
+    }
+
+    @Test
+    void exists_whenUserRemovedDuringLookup_doesNotRememberIt() {
+        Mockito
+                .when(userRepository.existsById(5L))
+                .thenAnswer(invocation -> {
+                    cache.removeUser(5L);
+                    return true;
+                })
+                .thenReturn(false);
+
+        assertThat(cache.exists(5L)).isTrue();
+        assertThat(cache.exists(5L)).isFalse();
+        Mockito.verify(userRepository, Mockito.times(2)).existsById(5L);
+    }
+}
@@ -5,14 +5,21 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.bulk.BulkResult;
+import ru.practicum.shareit.bulk.BulkRow;
 import ru.practicum.shareit.error.ServiceException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
+import ru.practicum.shareit.user.model.EmailView;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
+import javax.validation.Validation;
+import javax.validation.Validator;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -20,6 +27,8 @@ import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static ru.practicum.shareit.testutil.TestDataProvider.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,7 +37,13 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
     @Mock
+    private UserExistenceCache userExistenceCache;
+    @Mock
     private UserMapper userMapper;
+    @Mock
+    private EntityManager entityManager;
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -136,7 +151,7 @@ class UserServiceImplTest {
         Mockito
                 .when(userMapper.mapToDomain(dto)).thenReturn(unsaved);
         Mockito
-                .when(userRepository.save(unsaved)).thenThrow(DataIntegrityViolationException.class);
+                .when(userRepository.saveAndFlush(unsaved)).thenThrow(DataIntegrityViolationException.class);
 
         assertThrows(ServiceException.class, () -> userService.create(dto));
     }
@@ -152,14 +167,69 @@ class UserServiceImplTest {
         Mockito
                 .when(userMapper.mapToDomain(dto)).thenReturn(unsaved);
         Mockito
-                .when(userRepository.save(unsaved)).thenReturn(saved);
+                .when(userRepository.saveAndFlush(unsaved)).thenReturn(saved);
         Mockito
                 .when(userMapper.mapToDto(saved)).thenReturn(toBeReturned);
 
         UserDto created = userService.create(dto);
+        Mockito.verify(userExistenceCache).addUser(saved.getId());
         assertThat(created.getId()).isEqualTo(saved.getId());
         assertThat(created.getName()).isEqualTo(saved.getName());
         assertThat(created.getEmail()).isEqualTo(saved.getEmail());
     }
 
-}
\ No newline at end of file
+    @Test
+    void createUsers_whenEmailsInvalidOrTaken_reportsThemAndSavesTheRest() {
+        UserDto valid = UserDto.builder().name("one").email("one@mail.com").build();
+        UserDto taken = UserDto.builder().name("two").email("taken@mail.com").build();
+        UserDto invalid = UserDto.builder().name("three").email("not an email").build();
+        UserDto repeated = UserDto.builder().name("four").email("one@mail.com").build();
+        EmailView takenEmail = Mockito.mock(EmailView.class);
+        Mockito
+                .when(takenEmail.getEmail()).thenReturn("taken@mail.com");
+        Mockito
+                .when(userRepository.findAllByEmailIn(anyCollection())).thenReturn(List.of(takenEmail));
+        Mockito
+                .when(userMapper.mapToDomain(valid)).thenReturn(getMockUser(null));
+        Mockito
+                .when(userRepository.saveAll(anyList())).thenAnswer(invocation -> {
+                    List<User> users = invocation.getArgument(0);
+                    users.forEach(user -> user.setId(1L));
+                    return users;
+                });
+
+        List<BulkResult> results = userService.createUsers(List.of(
+                BulkRow.of(1, valid),
+                BulkRow.of(2, taken),
+                BulkRow.of(3, invalid),
+                BulkRow.of(4, repeated)));
+
+        assertThat(results).containsExactlyInAnyOrder(
+                BulkResult.created(1, 1L),
+                BulkResult.failed(2, "Email already exists."),
+                BulkResult.failed(3, "Email must be a well-formed email address."),
+                BulkResult.failed(4, "Email already exists."));
+        Mockito.verify(userExistenceCache).addUser(1L);
+        Mockito.verify(userRepository).flush();
+        Mockito.verify(entityManager).clear();
+    }
+
+    @Test
+    void createUsers_reportsEveryViolatedConstraintOfRow() {
+        Mockito
+                .when(userRepository.findAllByEmailIn(anyCollection())).thenReturn(Collections.emptyList());
+
+        List<BulkResult> results = userService.createUsers(List.of(
+                BulkRow.of(1, UserDto.builder().email("one@mail.com").build()),
+                BulkRow.of(2, UserDto.builder().name(" ").email("two@mail.com").build()),
+                BulkRow.of(3, UserDto.builder().name("three").build()),
+                BulkRow.of(4, UserDto.builder().name("").email("four@@mail.com").build())));
+
+        assertThat(results).containsExactly(
+                BulkResult.failed(1, "Name must not be blank."),
+                BulkResult.failed(2, "Name must not be blank."),
+                BulkResult.failed(3, "Email must not be null."),
+                BulkResult.failed(4, "Email must be a well-formed email address. Name must not be blank."));
+        Mockito.verify(userRepository).saveAll(Collections.emptyList());
+    }
+}
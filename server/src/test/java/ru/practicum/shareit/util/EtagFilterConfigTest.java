@@ -0,0 +1,56 @@
+package ru.practicum.shareit.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import javax.servlet.ServletResponse;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EtagFilterConfigTest {
+
+    ShallowEtagHeaderFilter filter = new EtagFilterConfig().shallowEtagHeaderFilter().getFilter();
+
+    @Test
+    void singleResourceGet_getsEtag() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/items/42"), response,
+                (req, res) -> res.getOutputStream().write("{\"id\":42}".getBytes()));
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotBlank();
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":42}");
+    }
+
+    @Test
+    void bulkImport_isNotBuffered() throws Exception {
+        assertPassedThrough(new MockHttpServletRequest("POST", "/items/bulk"));
+        assertPassedThrough(new MockHttpServletRequest("POST", "/users/bulk"));
+    }
+
+    @Test
+    void listingsAndSearch_areNotBuffered() throws Exception {
+        assertPassedThrough(new MockHttpServletRequest("GET", "/items"));
+        assertPassedThrough(new MockHttpServletRequest("GET", "/items/search"));
+        assertPassedThrough(new MockHttpServletRequest("GET", "/requests/all"));
+    }
+
+    @Test
+    void singleResourceUpdate_isNotBuffered() throws Exception {
+        assertPassedThrough(new MockHttpServletRequest("PATCH", "/users/7"));
+    }
+
+    private void assertPassedThrough(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<ServletResponse> passed = new AtomicReference<>();
+
+        filter.doFilter(request, response, (req, res) -> passed.set(res));
+
+        assertThat(passed.get()).isSameAs(response);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+    }
+}